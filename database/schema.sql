@@ -20,6 +20,7 @@ CREATE TABLE users (
 -- Products Table
 CREATE TABLE products (
   product_id INT PRIMARY KEY AUTO_INCREMENT,
+  sku VARCHAR(64) UNIQUE,
   product_name VARCHAR(100) NOT NULL,
   category VARCHAR(50) NOT NULL,
   price DECIMAL(10, 2) NOT NULL,
@@ -52,6 +53,8 @@ CREATE TABLE order_items (
   quantity INT NOT NULL,
   unit_price DECIMAL(10, 2) NOT NULL,
   subtotal DECIMAL(10, 2) NOT NULL,
+  discount DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+  promotion_id INT,
   FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE CASCADE,
   FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE RESTRICT
 );
@@ -81,6 +84,7 @@ CREATE TABLE stock_management (
   last_restocked TIMESTAMP,
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_stock_product_warehouse (product_id, warehouse_location),
   FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE CASCADE
 );
 
@@ -130,6 +134,161 @@ CREATE TABLE delivery_tracking (
   FOREIGN KEY (time_slot_id) REFERENCES delivery_time_slots(slot_id) ON DELETE SET NULL
 );
 
+-- Customer Order History Projection (one row per order, maintained by OrderService)
+CREATE TABLE customer_order_history (
+  order_id INT PRIMARY KEY,
+  user_id INT NOT NULL,
+  order_date TIMESTAMP NOT NULL,
+  status ENUM('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED') NOT NULL,
+  total_amount DECIMAL(10, 2) NOT NULL,
+  item_count INT NOT NULL,
+  item_summary VARCHAR(255),
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  INDEX idx_history_user_date (user_id, order_date)
+);
+
+-- Cold storage for completed orders (moved by OrderArchiveService, no foreign keys so history survives)
+CREATE TABLE orders_archive (
+  order_id INT PRIMARY KEY,
+  user_id INT NOT NULL,
+  order_date TIMESTAMP NOT NULL,
+  total_amount DECIMAL(10, 2) NOT NULL,
+  status ENUM('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED') NOT NULL,
+  delivery_address VARCHAR(255),
+  delivery_date DATE,
+  created_at TIMESTAMP NULL,
+  updated_at TIMESTAMP NULL,
+  archived_at TIMESTAMP NOT NULL,
+  INDEX idx_order_archive_user (user_id, order_date)
+);
+
+CREATE TABLE order_items_archive (
+  order_item_id INT PRIMARY KEY,
+  order_id INT NOT NULL,
+  product_id INT NOT NULL,
+  product_name VARCHAR(100),
+  quantity INT NOT NULL,
+  unit_price DECIMAL(10, 2) NOT NULL,
+  subtotal DECIMAL(10, 2) NOT NULL,
+  discount DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+  promotion_id INT,
+  INDEX idx_order_item_archive_order (order_id)
+);
+
+CREATE TABLE delivery_tracking_archive (
+  tracking_id INT PRIMARY KEY,
+  order_id INT NOT NULL,
+  delivery_person_id INT,
+  time_slot_id INT,
+  current_status ENUM('PENDING', 'PICKED_UP', 'IN_TRANSIT', 'DELIVERED', 'FAILED'),
+  current_location VARCHAR(255),
+  estimated_delivery_time DATETIME,
+  actual_delivery_time DATETIME,
+  delivery_notes TEXT,
+  created_at TIMESTAMP NULL,
+  updated_at TIMESTAMP NULL,
+  INDEX idx_delivery_archive_order (order_id)
+);
+
+-- Sales rollups (maintained by SalesRollupService as orders enter or leave CONFIRMED/SHIPPED/DELIVERED)
+CREATE TABLE sales_daily (
+  sale_date DATE PRIMARY KEY,
+  order_count BIGINT NOT NULL,
+  revenue DECIMAL(14, 2) NOT NULL
+);
+
+CREATE TABLE sales_daily_category (
+  sale_date DATE NOT NULL,
+  category VARCHAR(50) NOT NULL,
+  units_sold BIGINT NOT NULL,
+  revenue DECIMAL(14, 2) NOT NULL,
+  PRIMARY KEY (sale_date, category)
+);
+
+CREATE TABLE sales_daily_product (
+  sale_date DATE NOT NULL,
+  product_id INT NOT NULL,
+  units_sold BIGINT NOT NULL,
+  revenue DECIMAL(14, 2) NOT NULL,
+  PRIMARY KEY (sale_date, product_id),
+  INDEX idx_sales_product_date (product_id, sale_date)
+);
+
+-- Stock ledger checkpoint: highest journal segment already applied to stock_management
+CREATE TABLE stock_ledger_checkpoint (
+  checkpoint_id INT PRIMARY KEY,
+  last_segment BIGINT NOT NULL
+);
+
+-- Append-only stock movement journal and periodic snapshots (point-in-time stock levels)
+CREATE TABLE stock_movements (
+  movement_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  stock_id INT NOT NULL,
+  product_id INT NOT NULL,
+  warehouse_location VARCHAR(100),
+  delta INT NOT NULL,
+  reason VARCHAR(20) NOT NULL,
+  created_at TIMESTAMP(6) NOT NULL,
+  INDEX idx_movement_stock_time (stock_id, created_at),
+  INDEX idx_movement_time (created_at)
+);
+
+CREATE TABLE stock_snapshots (
+  snapshot_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  stock_id INT NOT NULL,
+  quantity INT NOT NULL,
+  taken_at TIMESTAMP(6) NOT NULL,
+  UNIQUE KEY uk_snapshot_time_stock (taken_at, stock_id),
+  INDEX idx_snapshot_stock_time (stock_id, taken_at)
+);
+
+-- Coupon codes on promotions; redemptions are written in batches by CouponService
+CREATE TABLE coupons (
+  coupon_id INT PRIMARY KEY AUTO_INCREMENT,
+  code VARCHAR(64) NOT NULL UNIQUE,
+  promotion_id INT NOT NULL,
+  max_redemptions INT,
+  max_redemptions_per_user INT,
+  redemption_count INT NOT NULL DEFAULT 0,
+  is_active BOOLEAN DEFAULT TRUE,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  INDEX idx_coupon_promotion (promotion_id)
+);
+
+CREATE TABLE coupon_redemptions (
+  redemption_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  coupon_id INT NOT NULL,
+  user_id INT NOT NULL,
+  order_id INT,
+  redeemed_at TIMESTAMP(6) NOT NULL,
+  INDEX idx_redemption_coupon_user (coupon_id, user_id)
+);
+
+-- Flash sales: a fixed allocation of one product under a promotion; tickets are held in memory
+CREATE TABLE flash_sales (
+  flash_sale_id INT PRIMARY KEY AUTO_INCREMENT,
+  promotion_id INT NOT NULL,
+  product_id INT NOT NULL,
+  allocation INT NOT NULL,
+  reservation_seconds INT NOT NULL,
+  converted INT NOT NULL DEFAULT 0,
+  is_active BOOLEAN DEFAULT TRUE,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  INDEX idx_flash_sale_promotion (promotion_id)
+);
+
+-- Per-promotion usage totals, flushed every few seconds by PromotionStatsService
+CREATE TABLE promotion_stats (
+  promotion_id INT PRIMARY KEY,
+  redemptions BIGINT NOT NULL,
+  units_sold BIGINT NOT NULL,
+  discount_total DECIMAL(14, 2) NOT NULL,
+  attributed_revenue DECIMAL(14, 2) NOT NULL,
+  updated_at TIMESTAMP
+);
+
 -- Create Indexes for Performance
 CREATE INDEX idx_user_email ON users(email);
 CREATE INDEX idx_order_user ON orders(user_id);
@@ -141,3 +300,20 @@ CREATE INDEX idx_delivery_person ON delivery_tracking(delivery_person_id);
 CREATE INDEX idx_delivery_status ON delivery_tracking(current_status);
 CREATE INDEX idx_time_slot_person ON delivery_time_slots(delivery_person_id);
 CREATE INDEX idx_time_slot_date ON delivery_time_slots(date);
+
+-- Secondary indexes for keyset pagination (InnoDB appends the primary key to each)
+CREATE INDEX idx_order_date ON orders(order_date);
+CREATE INDEX idx_order_total ON orders(total_amount);
+CREATE INDEX idx_order_created ON orders(created_at);
+CREATE INDEX idx_user_created ON users(created_at);
+CREATE INDEX idx_stock_quantity ON stock_management(quantity_available);
+CREATE INDEX idx_stock_created ON stock_management(created_at);
+CREATE INDEX idx_delivery_created ON delivery_tracking(created_at);
+CREATE INDEX idx_report_created ON maintenance_reports(created_at);
+CREATE INDEX idx_product_name ON products(product_name);
+CREATE INDEX idx_product_price ON products(price);
+CREATE INDEX idx_product_created ON products(created_at);
+CREATE INDEX idx_promotion_name ON promotions(promotion_name);
+CREATE INDEX idx_promotion_start ON promotions(start_date);
+CREATE INDEX idx_promotion_end ON promotions(end_date);
+CREATE INDEX idx_promotion_created ON promotions(created_at);
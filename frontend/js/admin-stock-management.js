@@ -1,7 +1,16 @@
 const API_BASE_URL = "http://localhost:8080"
 let allStocks = []
 
-document.addEventListener("DOMContentLoaded", loadStocks)
+document.addEventListener("DOMContentLoaded", () => {
+  loadStocks()
+  subscribeToStockAlerts()
+})
+
+// The server pushes an "alert" event whenever an item crosses its reorder level or runs out
+function subscribeToStockAlerts() {
+  const source = new EventSource(`${API_BASE_URL}/stock/alerts/stream`)
+  source.addEventListener("alert", () => loadStocks())
+}
 
 async function loadStocks() {
   try {
@@ -79,7 +79,7 @@ async function loadOrderHistory() {
   if (!currentUser) return
 
   try {
-    const response = await fetch(`${API_BASE_URL}/orders/user/${currentUser.userId}`)
+    const response = await fetch(`${API_BASE_URL}/orders/user/${currentUser.userId}/history`)
     const orders = await response.json()
 
     const timeline = document.getElementById("ordersTimeline")
@@ -100,6 +100,7 @@ async function loadOrderHistory() {
           <div class="timeline-details">
             Date: ${new Date(order.orderDate).toLocaleDateString()}<br>
             Total: $${order.totalAmount.toFixed(2)}<br>
+            Items: ${order.itemSummary || order.itemCount}<br>
             Status: <span class="status-badge status-${order.status.toLowerCase()}">${order.status}</span>
           </div>
         </div>
@@ -2,8 +2,10 @@ package com.grocery;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GroceryOrderingSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(GroceryOrderingSystemApplication.class, args);
@@ -0,0 +1,71 @@
+package com.grocery.controller;
+
+import com.grocery.dto.CategorySalesDTO;
+import com.grocery.dto.DailySalesDTO;
+import com.grocery.dto.ErrorResponse;
+import com.grocery.dto.ProductSalesDTO;
+import com.grocery.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/analytics/sales")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @GetMapping("/daily")
+    public ResponseEntity<?> getDailySales(@RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+            List<DailySalesDTO> sales = salesRollupService.getDailySales(start, end);
+            return new ResponseEntity<>(sales, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategorySales(@RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+            List<CategorySalesDTO> sales = salesRollupService.getCategorySales(start, end);
+            return new ResponseEntity<>(sales, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<?> getTopProducts(@RequestParam(required = false) String from, @RequestParam(required = false) String to,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+            List<ProductSalesDTO> sales = salesRollupService.getTopProducts(start, end, limit);
+            return new ResponseEntity<>(sales, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile(@RequestParam(defaultValue = "7") int days) {
+        try {
+            LocalDate from = salesRollupService.reconcile(days);
+            return new ResponseEntity<>(Map.of("reconciledFrom", from.toString()), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.grocery.controller;
+
+import com.grocery.dto.CouponDTO;
+import com.grocery.dto.CouponRedemptionRequest;
+import com.grocery.dto.CouponValidationDTO;
+import com.grocery.dto.ErrorResponse;
+import com.grocery.model.Coupon;
+import com.grocery.service.CouponService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/coupons")
+@CrossOrigin(origins = "*")
+public class CouponController {
+    @Autowired
+    private CouponService couponService;
+
+    @PostMapping
+    public ResponseEntity<?> createCoupon(@RequestBody Coupon coupon) {
+        try {
+            CouponDTO createdCoupon = couponService.createCoupon(coupon);
+            return new ResponseEntity<>(createdCoupon, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CouponDTO>> getAllCoupons() {
+        List<CouponDTO> coupons = couponService.getAllCoupons();
+        return new ResponseEntity<>(coupons, HttpStatus.OK);
+    }
+
+    @GetMapping("/validate")
+    public ResponseEntity<?> validateCoupon(@RequestParam String code, @RequestParam(required = false) Integer userId) {
+        try {
+            CouponValidationDTO validation = couponService.validate(code, userId);
+            return new ResponseEntity<>(validation, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{couponId}")
+    public ResponseEntity<CouponDTO> getCouponById(@PathVariable Integer couponId) {
+        CouponDTO coupon = couponService.getCouponById(couponId);
+        if (coupon != null) {
+            return new ResponseEntity<>(coupon, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/{code}/redeem")
+    public ResponseEntity<?> redeemCoupon(@PathVariable String code, @RequestBody CouponRedemptionRequest request) {
+        try {
+            CouponValidationDTO redemption = couponService.redeem(code, request);
+            return new ResponseEntity<>(redemption, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
+        }
+    }
+
+    @PutMapping("/{couponId}/toggle")
+    public ResponseEntity<CouponDTO> toggleCouponStatus(@PathVariable Integer couponId) {
+        CouponDTO updatedCoupon = couponService.toggleCouponStatus(couponId);
+        if (updatedCoupon != null) {
+            return new ResponseEntity<>(updatedCoupon, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+}
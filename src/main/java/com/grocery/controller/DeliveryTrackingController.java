@@ -1,12 +1,20 @@
 package com.grocery.controller;
 
+import com.grocery.dto.BulkStatusUpdateRequest;
+import com.grocery.dto.BulkStatusUpdateResult;
+import com.grocery.dto.ErrorResponse;
 import com.grocery.dto.DeliveryTrackingDTO;
 import com.grocery.model.DeliveryTracking;
+import com.grocery.service.KeysetQuery;
 import com.grocery.service.DeliveryTrackingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +25,9 @@ public class DeliveryTrackingController {
     @Autowired
     private DeliveryTrackingService deliveryTrackingService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<DeliveryTrackingDTO> createTracking(@RequestBody DeliveryTracking tracking) {
         DeliveryTrackingDTO createdTracking = deliveryTrackingService.createTracking(tracking);
@@ -42,11 +53,27 @@ public class DeliveryTrackingController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DeliveryTrackingDTO>> getAllTrackings() {
+    public ResponseEntity<?> getAllTrackings(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(deliveryTrackingService.getTrackingsPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<DeliveryTrackingDTO> trackings = deliveryTrackingService.getAllTrackings();
         return new ResponseEntity<>(trackings, HttpStatus.OK);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTrackings() {
+        StreamingResponseBody body = out -> deliveryTrackingService.exportTrackings(new NdjsonWriter<>(out, objectMapper));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<DeliveryTrackingDTO>> getTrackingsByStatus(@PathVariable String status) {
         try {
@@ -75,6 +102,19 @@ public class DeliveryTrackingController {
         return new ResponseEntity<>(stats, HttpStatus.OK);
     }
 
+    @PutMapping("/bulk/status")
+    public ResponseEntity<?> updateDeliveryStatuses(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            if (request.getStatus() == null) {
+                throw new IllegalArgumentException("Target status is required");
+            }
+            BulkStatusUpdateResult result = deliveryTrackingService.updateDeliveryStatuses(request.getIds(), DeliveryTracking.DeliveryStatus.valueOf(request.getStatus()));
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PutMapping("/{trackingId}")
     public ResponseEntity<DeliveryTrackingDTO> updateTracking(@PathVariable Integer trackingId, @RequestBody DeliveryTracking trackingDetails) {
         DeliveryTrackingDTO updatedTracking = deliveryTrackingService.updateTracking(trackingId, trackingDetails);
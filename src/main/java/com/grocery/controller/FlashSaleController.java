@@ -0,0 +1,99 @@
+package com.grocery.controller;
+
+import com.grocery.dto.ErrorResponse;
+import com.grocery.dto.FlashSaleDTO;
+import com.grocery.dto.FlashSaleEntryDTO;
+import com.grocery.dto.FlashSaleEntryRequest;
+import com.grocery.dto.OrderCreationRequest;
+import com.grocery.dto.OrderDTO;
+import com.grocery.model.FlashSale;
+import com.grocery.service.FlashSaleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/flash-sales")
+@CrossOrigin(origins = "*")
+public class FlashSaleController {
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @PostMapping
+    public ResponseEntity<?> createFlashSale(@RequestBody FlashSale flashSale) {
+        try {
+            FlashSaleDTO createdFlashSale = flashSaleService.createFlashSale(flashSale);
+            return new ResponseEntity<>(createdFlashSale, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<FlashSaleDTO>> getAllFlashSales() {
+        List<FlashSaleDTO> flashSales = flashSaleService.getAllFlashSales();
+        return new ResponseEntity<>(flashSales, HttpStatus.OK);
+    }
+
+    @GetMapping("/{flashSaleId}")
+    public ResponseEntity<FlashSaleDTO> getFlashSaleById(@PathVariable Integer flashSaleId) {
+        FlashSaleDTO flashSale = flashSaleService.getFlashSaleById(flashSaleId);
+        if (flashSale != null) {
+            return new ResponseEntity<>(flashSale, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PutMapping("/{flashSaleId}/toggle")
+    public ResponseEntity<FlashSaleDTO> toggleFlashSaleStatus(@PathVariable Integer flashSaleId) {
+        FlashSaleDTO updatedFlashSale = flashSaleService.toggleFlashSaleStatus(flashSaleId);
+        if (updatedFlashSale != null) {
+            return new ResponseEntity<>(updatedFlashSale, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/{flashSaleId}/entries")
+    public ResponseEntity<?> enterFlashSale(@PathVariable Integer flashSaleId, @RequestBody FlashSaleEntryRequest request) {
+        try {
+            FlashSaleEntryDTO entry = flashSaleService.enter(flashSaleId, request.getUserId());
+            return new ResponseEntity<>(entry, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
+        }
+    }
+
+    @GetMapping("/{flashSaleId}/entries/{entryId}")
+    public ResponseEntity<FlashSaleEntryDTO> getEntry(@PathVariable Integer flashSaleId, @PathVariable String entryId) {
+        FlashSaleEntryDTO entry = flashSaleService.getEntry(flashSaleId, entryId);
+        if (entry != null) {
+            return new ResponseEntity<>(entry, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/{flashSaleId}/entries/{entryId}/checkout")
+    public ResponseEntity<?> checkout(@PathVariable Integer flashSaleId, @PathVariable String entryId,
+            @RequestBody(required = false) OrderCreationRequest details) {
+        try {
+            OrderDTO order = flashSaleService.checkout(flashSaleId, entryId, details);
+            return new ResponseEntity<>(order, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
+        }
+    }
+
+    @DeleteMapping("/{flashSaleId}/entries/{entryId}")
+    public ResponseEntity<Void> cancelEntry(@PathVariable Integer flashSaleId, @PathVariable String entryId) {
+        if (flashSaleService.cancel(flashSaleId, entryId)) {
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+}
@@ -1,7 +1,9 @@
 package com.grocery.controller;
 
+import com.grocery.dto.ErrorResponse;
 import com.grocery.dto.MaintenanceReportDTO;
 import com.grocery.model.MaintenanceReport;
+import com.grocery.service.KeysetQuery;
 import com.grocery.service.MaintenanceReportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -33,7 +35,15 @@ public class MaintenanceReportController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MaintenanceReportDTO>> getAllReports() {
+    public ResponseEntity<?> getAllReports(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(maintenanceReportService.getReportsPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<MaintenanceReportDTO> reports = maintenanceReportService.getAllReports();
         return new ResponseEntity<>(reports, HttpStatus.OK);
     }
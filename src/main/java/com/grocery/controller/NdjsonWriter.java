@@ -0,0 +1,34 @@
+package com.grocery.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes one JSON document per line straight to the response so exports never buffer the full result
+class NdjsonWriter<T> implements Consumer<T> {
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private long written;
+
+    NdjsonWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(T row) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+            if (++written % FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package com.grocery.controller;
 
+import com.grocery.dto.BulkStatusUpdateRequest;
+import com.grocery.dto.BulkStatusUpdateResult;
+import com.grocery.dto.CustomerOrderHistoryDTO;
+import com.grocery.dto.ErrorResponse;
 import com.grocery.dto.OrderDTO;
 import com.grocery.dto.OrderCreationRequest;
 import com.grocery.model.Order;
+import com.grocery.service.KeysetQuery;
+import com.grocery.service.OrderArchiveService;
+import com.grocery.service.OrderIngestionQueue;
 import com.grocery.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/orders")
@@ -17,10 +32,52 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderIngestionQueue orderIngestionQueue;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody Order order) {
-        OrderDTO createdOrder = orderService.createOrder(order);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<?>> createOrder(@RequestBody OrderCreationRequest request) {
+        CompletableFuture<OrderDTO> createdOrder;
+        try {
+            createdOrder = orderIngestionQueue.isEnabled()
+                ? orderIngestionQueue.submit(request)
+                : CompletableFuture.completedFuture(orderService.createOrder(request));
+        } catch (RuntimeException e) {
+            createdOrder = CompletableFuture.failedFuture(e);
+        }
+        return createdOrder.handle((order, error) -> {
+            if (error == null) {
+                return new ResponseEntity<>(order, HttpStatus.CREATED);
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof IllegalArgumentException) {
+                return new ResponseEntity<>(new ErrorResponse(cause.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+            if (cause instanceof IllegalStateException) {
+                return new ResponseEntity<>(new ErrorResponse(cause.getMessage()), HttpStatus.CONFLICT);
+            }
+            if (cause instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(cause.getMessage()));
+            }
+            return new ResponseEntity<>(new ErrorResponse("Failed to create order: " + cause.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> getOrdersByIds(@RequestParam List<Integer> ids) {
+        try {
+            return new ResponseEntity<>(orderService.getOrdersByIds(ids), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{orderId}")
@@ -38,19 +95,64 @@ public class OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<List<CustomerOrderHistoryDTO>> getOrderHistory(@PathVariable Integer userId) {
+        List<CustomerOrderHistoryDTO> history = orderService.getOrderHistory(userId);
+        return new ResponseEntity<>(history, HttpStatus.OK);
+    }
+
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(orderService.getOrdersPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<OrderDTO> orders = orderService.getAllOrders();
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = out -> orderService.exportOrders(new NdjsonWriter<>(out, objectMapper));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @PutMapping("/bulk/status")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            if (request.getStatus() == null) {
+                throw new IllegalArgumentException("Target status is required");
+            }
+            BulkStatusUpdateResult result = orderService.updateOrderStatuses(request.getIds(), Order.OrderStatus.valueOf(request.getStatus()));
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archiveCompletedOrders() {
+        int archived = orderArchiveService.archiveCompletedOrders();
+        return new ResponseEntity<>(Map.of("archivedOrders", archived), HttpStatus.OK);
+    }
+
     @PutMapping("/{orderId}/status")
-    public ResponseEntity<OrderDTO> updateOrderStatus(@PathVariable Integer orderId, @RequestParam String status) {
-        OrderDTO updatedOrder = orderService.updateOrderStatus(orderId, Order.OrderStatus.valueOf(status));
-        if (updatedOrder != null) {
-            return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Integer orderId, @RequestParam String status) {
+        try {
+            OrderDTO updatedOrder = orderService.updateOrderStatus(orderId, Order.OrderStatus.valueOf(status));
+            if (updatedOrder != null) {
+                return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
+            }
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @DeleteMapping("/{orderId}")
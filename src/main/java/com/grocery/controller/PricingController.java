@@ -0,0 +1,28 @@
+package com.grocery.controller;
+
+import com.grocery.dto.ErrorResponse;
+import com.grocery.dto.PriceQuoteDTO;
+import com.grocery.dto.PriceQuoteRequest;
+import com.grocery.service.PricingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/pricing")
+@CrossOrigin(origins = "*")
+public class PricingController {
+    @Autowired
+    private PricingService pricingService;
+
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@RequestBody PriceQuoteRequest request) {
+        try {
+            PriceQuoteDTO quote = pricingService.quote(request);
+            return new ResponseEntity<>(quote, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package com.grocery.controller;
 
+import com.grocery.dto.ErrorResponse;
 import com.grocery.dto.ProductDTO;
+import com.grocery.dto.ProductFacetsDTO;
+import com.grocery.dto.ProductImageDTO;
+import com.grocery.dto.ProductImportReport;
 import com.grocery.model.Product;
+import com.grocery.service.KeysetQuery;
+import com.grocery.service.ProductImportService;
 import com.grocery.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,14 +28,49 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@RequestBody Product product) {
         ProductDTO createdProduct = productService.createProduct(product);
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportReport> importProducts(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, @RequestParam(required = false) String jobId) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        ProductImportReport report = productImportService.importProducts(body, csv, jobId);
+        if ("FAILED".equals(report.getStatus())) {
+            return new ResponseEntity<>(report, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ProductImportReport> getImport(@PathVariable String jobId) {
+        ProductImportReport report = productImportService.getImport(jobId);
+        if (report != null) {
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<Integer> ids) {
+        try {
+            return new ResponseEntity<>(productService.getProductsByIds(ids), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/{productId}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Integer productId) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Integer productId, WebRequest request) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
         ProductDTO product = productService.getProductById(productId);
         if (product != null) {
             return new ResponseEntity<>(product, HttpStatus.OK);
@@ -32,17 +79,45 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(WebRequest request, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(productService.getProductsPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<ProductDTO> products = productService.getAllProducts();
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category, WebRequest request) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
         List<ProductDTO> products = productService.getProductsByCategory(category);
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(WebRequest request, @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> priceRange) {
+        if (request.checkNotModified(productService.getFacetsETag())) {
+            return null;
+        }
+        try {
+            ProductFacetsDTO facets = productService.getFacets(category, priceRange);
+            return new ResponseEntity<>(facets, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/search/{keyword}")
     public ResponseEntity<List<ProductDTO>> searchProducts(@PathVariable String keyword) {
         List<ProductDTO> products = productService.searchProducts(keyword);
@@ -58,6 +133,19 @@ public class ProductController {
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @PostMapping(value = "/{productId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadProductImage(@PathVariable Integer productId, @RequestParam("file") MultipartFile file) {
+        try {
+            ProductImageDTO image = productService.updateProductImage(productId, file.getBytes());
+            if (image != null) {
+                return new ResponseEntity<>(image, HttpStatus.OK);
+            }
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException | IOException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @DeleteMapping("/{productId}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Integer productId) {
         if (productService.deleteProduct(productId)) {
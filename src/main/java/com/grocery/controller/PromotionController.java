@@ -1,12 +1,18 @@
 package com.grocery.controller;
 
+import com.grocery.dto.ErrorResponse;
+import com.grocery.dto.PromotionAnalyticsDTO;
 import com.grocery.dto.PromotionDTO;
 import com.grocery.model.Promotion;
+import com.grocery.service.KeysetQuery;
 import com.grocery.service.PromotionService;
+import com.grocery.service.PromotionStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -16,6 +22,9 @@ public class PromotionController {
     @Autowired
     private PromotionService promotionService;
 
+    @Autowired
+    private PromotionStatsService promotionStatsService;
+
     @PostMapping
     public ResponseEntity<PromotionDTO> createPromotion(@RequestBody Promotion promotion) {
         try {
@@ -36,7 +45,15 @@ public class PromotionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PromotionDTO>> getAllPromotions() {
+    public ResponseEntity<?> getAllPromotions(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(promotionService.getPromotionsPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<PromotionDTO> promotions = promotionService.getAllPromotions();
         return new ResponseEntity<>(promotions, HttpStatus.OK);
     }
@@ -53,6 +70,35 @@ public class PromotionController {
         return new ResponseEntity<>(promotions, HttpStatus.OK);
     }
 
+    @GetMapping("/range")
+    public ResponseEntity<?> getPromotionsByDateRange(@RequestParam String from, @RequestParam String to) {
+        try {
+            List<PromotionDTO> promotions = promotionService.getPromotionsByDateRange(LocalDate.parse(from), LocalDate.parse(to));
+            return new ResponseEntity<>(promotions, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{promotionId}/analytics")
+    public ResponseEntity<PromotionAnalyticsDTO> getPromotionAnalytics(@PathVariable Integer promotionId) {
+        PromotionAnalyticsDTO analytics = promotionStatsService.getAnalytics(promotionId);
+        if (analytics != null) {
+            return new ResponseEntity<>(analytics, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @GetMapping("/analytics/leaderboard")
+    public ResponseEntity<?> getPromotionLeaderboard(@RequestParam(defaultValue = "revenue") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return new ResponseEntity<>(promotionStatsService.getLeaderboard(metric, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PutMapping("/{promotionId}")
     public ResponseEntity<PromotionDTO> updatePromotion(@PathVariable Integer promotionId, @RequestBody Promotion promotionDetails) {
         try {
@@ -1,13 +1,30 @@
 package com.grocery.controller;
 
+import com.grocery.dto.ErrorResponse;
+import com.grocery.dto.StockAlertDTO;
+import com.grocery.dto.StockLevelDTO;
 import com.grocery.dto.StockManagementDTO;
+import com.grocery.dto.StockMovementDTO;
+import com.grocery.dto.StockReceiptRequest;
+import com.grocery.dto.StockReceiptResult;
 import com.grocery.model.StockManagement;
+import com.grocery.service.InventoryValuationService;
+import com.grocery.service.KeysetQuery;
+import com.grocery.service.StockAlertService;
 import com.grocery.service.StockManagementService;
+import com.grocery.service.StockMovementService;
+import com.grocery.service.StockReceiptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/stock")
@@ -16,6 +33,18 @@ public class StockManagementController {
     @Autowired
     private StockManagementService stockManagementService;
 
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private InventoryValuationService inventoryValuationService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private StockReceiptService stockReceiptService;
+
     @PostMapping
     public ResponseEntity<StockManagementDTO> createStock(@RequestBody StockManagement stock) {
         StockManagementDTO createdStock = stockManagementService.createStock(stock);
@@ -41,11 +70,30 @@ public class StockManagementController {
     }
 
     @GetMapping
-    public ResponseEntity<List<StockManagementDTO>> getAllStocks() {
+    public ResponseEntity<?> getAllStocks(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after, @RequestParam(required = false) String sort) {
+        if (KeysetQuery.isRequested(limit, after, sort)) {
+            try {
+                return new ResponseEntity<>(stockManagementService.getStocksPage(limit, after, sort), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+            }
+        }
         List<StockManagementDTO> stocks = stockManagementService.getAllStocks();
         return new ResponseEntity<>(stocks, HttpStatus.OK);
     }
 
+    @GetMapping("/alerts")
+    public ResponseEntity<List<StockAlertDTO>> getStockAlerts() {
+        return new ResponseEntity<>(stockAlertService.getAlerts(), HttpStatus.OK);
+    }
+
+    // Sends a "snapshot" event with the current alerts, then an "alert" event whenever a row changes status
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockAlerts() {
+        return stockAlertService.subscribe();
+    }
+
     @GetMapping("/alerts/low-stock")
     public ResponseEntity<List<StockManagementDTO>> getLowStockItems() {
         List<StockManagementDTO> stocks = stockManagementService.getLowStockItems();
@@ -98,11 +146,84 @@ public class StockManagementController {
     }
 
     @GetMapping("/analytics/total-value")
-    public ResponseEntity<Double> getTotalInventoryValue() {
-        Double totalValue = stockManagementService.getTotalInventoryValue();
+    public ResponseEntity<BigDecimal> getTotalInventoryValue() {
+        BigDecimal totalValue = stockManagementService.getTotalInventoryValue();
         return new ResponseEntity<>(totalValue, HttpStatus.OK);
     }
 
+    @GetMapping("/analytics/value-by-category")
+    public ResponseEntity<Map<String, BigDecimal>> getInventoryValueByCategory() {
+        return new ResponseEntity<>(inventoryValuationService.getValueByCategory(), HttpStatus.OK);
+    }
+
+    @GetMapping("/analytics/value-by-warehouse")
+    public ResponseEntity<Map<String, BigDecimal>> getInventoryValueByWarehouse() {
+        return new ResponseEntity<>(inventoryValuationService.getValueByWarehouse(), HttpStatus.OK);
+    }
+
+    // Recomputes the totals from the tables and returns the drift that was corrected
+    @PostMapping("/analytics/recompute")
+    public ResponseEntity<Map<String, BigDecimal>> recomputeInventoryValue() {
+        BigDecimal drift = inventoryValuationService.recompute();
+        return new ResponseEntity<>(Map.of("totalValue", inventoryValuationService.getTotalValue(), "drift", drift), HttpStatus.OK);
+    }
+
+    // Stock on hand at a point in time (defaults to now), derived from the latest snapshot and later movements
+    @GetMapping("/levels")
+    public ResponseEntity<?> getStockLevels(@RequestParam(required = false) String at) {
+        try {
+            LocalDateTime pointInTime = at != null ? LocalDateTime.parse(at) : LocalDateTime.now();
+            List<StockLevelDTO> levels = stockMovementService.getLevels(pointInTime);
+            return new ResponseEntity<>(levels, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{stockId}/level")
+    public ResponseEntity<?> getStockLevel(@PathVariable Integer stockId, @RequestParam(required = false) String at) {
+        try {
+            LocalDateTime pointInTime = at != null ? LocalDateTime.parse(at) : LocalDateTime.now();
+            StockLevelDTO level = stockMovementService.getLevel(stockId, pointInTime);
+            if (level != null) {
+                return new ResponseEntity<>(level, HttpStatus.OK);
+            }
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{stockId}/movements")
+    public ResponseEntity<?> getStockMovements(@PathVariable Integer stockId,
+                                               @RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to) {
+        try {
+            LocalDateTime end = to != null ? LocalDateTime.parse(to) : LocalDateTime.now();
+            LocalDateTime start = from != null ? LocalDateTime.parse(from) : end.minusDays(1);
+            List<StockMovementDTO> movements = stockMovementService.getMovements(stockId, start, end);
+            return new ResponseEntity<>(movements, HttpStatus.OK);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/snapshots")
+    public ResponseEntity<Map<String, LocalDateTime>> takeStockSnapshot() {
+        LocalDateTime takenAt = stockMovementService.takeSnapshot(LocalDateTime.now());
+        return new ResponseEntity<>(Map.of("takenAt", takenAt), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/receipts")
+    public ResponseEntity<?> receiveStock(@RequestBody StockReceiptRequest request) {
+        try {
+            StockReceiptResult result = stockReceiptService.receive(request);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @DeleteMapping("/{stockId}")
     public ResponseEntity<Void> deleteStock(@PathVariable Integer stockId) {
         if (stockManagementService.deleteStock(stockId)) {
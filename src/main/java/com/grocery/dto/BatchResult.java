@@ -0,0 +1,48 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult<T> {
+    public static final int MAX_IDS = 500;
+
+    private List<T> items;
+    private List<Integer> missingIds;
+
+    // Drops duplicates and nulls while keeping the order the ids were requested in
+    public static Set<Integer> requestedIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        Set<Integer> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        return requested;
+    }
+
+    public static <T> BatchResult<T> of(Set<Integer> requestedIds, Map<Integer, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : requestedIds) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResult<>(items, missingIds);
+    }
+}
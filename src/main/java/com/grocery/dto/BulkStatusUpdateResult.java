@@ -0,0 +1,26 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+    private String targetStatus;
+    private int updated;
+    private int skipped;
+    private List<Outcome> outcomes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Integer id;
+        // UPDATED, UNCHANGED, NOT_FOUND, INVALID_TRANSITION or CONFLICT
+        private String result;
+        private String previousStatus;
+    }
+}
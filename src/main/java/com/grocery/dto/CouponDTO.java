@@ -0,0 +1,34 @@
+package com.grocery.dto;
+
+import com.grocery.model.Coupon;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponDTO {
+    private Integer couponId;
+    private String code;
+    private Integer promotionId;
+    private Integer maxRedemptions;
+    private Integer maxRedemptionsPerUser;
+    private Integer redemptionCount;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+
+    public static CouponDTO fromEntity(Coupon coupon) {
+        CouponDTO dto = new CouponDTO();
+        dto.setCouponId(coupon.getCouponId());
+        dto.setCode(coupon.getCode());
+        dto.setPromotionId(coupon.getPromotionId());
+        dto.setMaxRedemptions(coupon.getMaxRedemptions());
+        dto.setMaxRedemptionsPerUser(coupon.getMaxRedemptionsPerUser());
+        dto.setRedemptionCount(coupon.getRedemptionCount());
+        dto.setIsActive(coupon.getIsActive());
+        dto.setCreatedAt(coupon.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,13 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponRedemptionRequest {
+    private Integer userId;
+    private Integer orderId;
+}
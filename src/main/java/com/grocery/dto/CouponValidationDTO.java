@@ -0,0 +1,30 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponValidationDTO {
+    private String code;
+    private boolean valid;
+    private String message;
+    private Integer promotionId;
+    private String promotionName;
+    private BigDecimal discountPercentage;
+    private BigDecimal discountAmount;
+
+    // Null when the coupon has no such cap
+    private Integer remainingRedemptions;
+    private Integer remainingForUser;
+
+    public static CouponValidationDTO rejected(String code, String message) {
+        CouponValidationDTO dto = new CouponValidationDTO();
+        dto.setCode(code);
+        dto.setMessage(message);
+        return dto;
+    }
+}
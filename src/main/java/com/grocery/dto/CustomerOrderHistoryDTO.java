@@ -0,0 +1,33 @@
+package com.grocery.dto;
+
+import com.grocery.model.CustomerOrderHistory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderHistoryDTO {
+    private Integer orderId;
+    private Integer userId;
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private String itemSummary;
+
+    public static CustomerOrderHistoryDTO fromEntity(CustomerOrderHistory history) {
+        return new CustomerOrderHistoryDTO(
+            history.getOrderId(),
+            history.getUserId(),
+            history.getOrderDate(),
+            history.getStatus().toString(),
+            history.getTotalAmount(),
+            history.getItemCount(),
+            history.getItemSummary()
+        );
+    }
+}
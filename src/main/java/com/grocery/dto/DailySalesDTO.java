@@ -0,0 +1,21 @@
+package com.grocery.dto;
+
+import com.grocery.model.DailySales;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesDTO {
+    private LocalDate saleDate;
+    private Long orderCount;
+    private BigDecimal revenue;
+
+    public static DailySalesDTO fromEntity(DailySales sales) {
+        return new DailySalesDTO(sales.getSaleDate(), sales.getOrderCount(), sales.getRevenue());
+    }
+}
@@ -0,0 +1,39 @@
+package com.grocery.dto;
+
+import com.grocery.model.FlashSale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleDTO {
+    private Integer flashSaleId;
+    private Integer promotionId;
+    private Integer productId;
+    private Integer allocation;
+    private Integer reservationSeconds;
+    private Integer converted;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+
+    // Live counts from the ticket pool; null when the sale isn't running
+    private Integer available;
+    private Integer reserved;
+    private Integer waiting;
+
+    public static FlashSaleDTO fromEntity(FlashSale flashSale) {
+        FlashSaleDTO dto = new FlashSaleDTO();
+        dto.setFlashSaleId(flashSale.getFlashSaleId());
+        dto.setPromotionId(flashSale.getPromotionId());
+        dto.setProductId(flashSale.getProductId());
+        dto.setAllocation(flashSale.getAllocation());
+        dto.setReservationSeconds(flashSale.getReservationSeconds());
+        dto.setConverted(flashSale.getConverted());
+        dto.setIsActive(flashSale.getIsActive());
+        dto.setCreatedAt(flashSale.getCreatedAt());
+        return dto;
+    }
+}
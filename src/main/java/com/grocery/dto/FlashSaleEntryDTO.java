@@ -0,0 +1,22 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleEntryDTO {
+    private String entryId;
+    private Integer flashSaleId;
+    private Integer userId;
+    private String status;
+
+    // Roughly how many customers are still queued ahead; only set while WAITING
+    private Long position;
+    private Integer ticket;
+    private LocalDateTime expiresAt;
+    private Integer orderId;
+}
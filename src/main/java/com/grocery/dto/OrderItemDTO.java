@@ -16,6 +16,8 @@ public class OrderItemDTO {
     private Integer quantity;
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
+    private BigDecimal discount;
+    private Integer promotionId;
 
     public static OrderItemDTO fromEntity(OrderItem item) {
         return new OrderItemDTO(
@@ -24,7 +26,9 @@ public class OrderItemDTO {
             item.getProduct().getProductName(),
             item.getQuantity(),
             item.getUnitPrice(),
-            item.getSubtotal()
+            item.getSubtotal(),
+            item.getDiscount(),
+            item.getPromotionId()
         );
     }
 }
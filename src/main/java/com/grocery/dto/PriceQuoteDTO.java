@@ -0,0 +1,34 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDTO {
+    private List<Line> lines;
+    private BigDecimal subtotal;
+    private BigDecimal discountTotal;
+    private BigDecimal total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Integer productId;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+        private BigDecimal discount;
+        private BigDecimal total;
+
+        // The single best promotion for the line, null when none applies
+        private Integer promotionId;
+        private String promotionName;
+    }
+}
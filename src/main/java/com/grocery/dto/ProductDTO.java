@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -17,6 +18,8 @@ public class ProductDTO {
     private Integer stockQuantity;
     private String description;
     private String imageUrl;
+    private String sku;
+    private LocalDateTime updatedAt;
 
     public static ProductDTO fromEntity(Product product) {
         return new ProductDTO(
@@ -26,7 +29,14 @@ public class ProductDTO {
             product.getPrice(),
             product.getStockQuantity(),
             product.getDescription(),
-            product.getImageUrl()
+            product.getImageUrl(),
+            product.getSku(),
+            product.getUpdatedAt()
         );
     }
+
+    public static ProductDTO copyOf(ProductDTO product) {
+        return new ProductDTO(product.getProductId(), product.getProductName(), product.getCategory(), product.getPrice(),
+            product.getStockQuantity(), product.getDescription(), product.getImageUrl(), product.getSku(), product.getUpdatedAt());
+    }
 }
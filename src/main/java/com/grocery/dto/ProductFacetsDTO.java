@@ -0,0 +1,34 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDTO {
+    private long totalProducts;
+    private List<CategoryFacet> categories;
+    private List<PriceRangeFacet> priceRanges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryFacet {
+        private String category;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeFacet {
+        private String range;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private long count;
+    }
+}
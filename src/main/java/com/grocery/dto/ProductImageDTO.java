@@ -0,0 +1,15 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageDTO {
+    private Integer productId;
+    private String imageHash;
+    private Map<String, String> variantUrls;
+}
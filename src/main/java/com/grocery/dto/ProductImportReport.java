@@ -0,0 +1,37 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Data
+@NoArgsConstructor
+public class ProductImportReport {
+    private String jobId;
+    private volatile String status;
+    private LocalDateTime startedAt;
+    private volatile long rowsRead;
+    private volatile long rowsImported;
+    private volatile long rowsFailed;
+    private volatile long elapsedMillis;
+    private volatile long rowsPerSecond;
+    private List<RowError> errors = new CopyOnWriteArrayList<>();
+
+    public ProductImportReport(String jobId) {
+        this.jobId = jobId;
+        this.status = "RUNNING";
+        this.startedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String sku;
+        private String message;
+    }
+}
@@ -0,0 +1,18 @@
+package com.grocery.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class ProductImportRow {
+    private String sku;
+    private String productName;
+    private String category;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String description;
+    private String imageUrl;
+    private String warehouseLocation;
+    private Integer quantityAvailable;
+    private Integer reorderLevel;
+}
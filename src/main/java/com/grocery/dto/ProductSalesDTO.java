@@ -0,0 +1,16 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDTO {
+    private Integer productId;
+    private String productName;
+    private Long unitsSold;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,18 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionAnalyticsDTO {
+    private Integer promotionId;
+    private String promotionName;
+    private long redemptions;
+    private long unitsSold;
+    private BigDecimal discountTotal;
+    private BigDecimal attributedRevenue;
+}
@@ -33,16 +33,16 @@ public class PromotionDTO {
         dto.setEndDate(promotion.getEndDate());
         dto.setApplicableProducts(promotion.getApplicableProducts());
         dto.setIsActive(promotion.getIsActive());
-        
-        LocalDate today = LocalDate.now();
-        if (today.isBefore(promotion.getStartDate())) {
-            dto.setStatus("UPCOMING");
-        } else if (today.isAfter(promotion.getEndDate())) {
-            dto.setStatus("EXPIRED");
-        } else {
-            dto.setStatus("ACTIVE");
-        }
-        
+        dto.setStatus(statusOn(promotion.getStartDate(), promotion.getEndDate(), LocalDate.now()));
         return dto;
     }
+
+    public static String statusOn(LocalDate startDate, LocalDate endDate, LocalDate day) {
+        if (day.isBefore(startDate)) {
+            return "UPCOMING";
+        } else if (day.isAfter(endDate)) {
+            return "EXPIRED";
+        }
+        return "ACTIVE";
+    }
 }
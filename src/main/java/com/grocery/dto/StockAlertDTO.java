@@ -0,0 +1,23 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertDTO {
+    private Integer stockId;
+    private Integer productId;
+    private String productName;
+    private String warehouseLocation;
+    private Integer quantityAvailable;
+    private Integer reorderLevel;
+    private String stockStatus;
+
+    // Only set on pushed events: the status the row crossed from
+    private String previousStatus;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,18 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDTO {
+    private Integer stockId;
+    private Integer quantity;
+    private LocalDateTime at;
+
+    // The snapshot the level was derived from; only movements after it were read
+    private LocalDateTime snapshotAt;
+}
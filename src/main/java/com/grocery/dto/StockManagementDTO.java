@@ -21,26 +21,31 @@ public class StockManagementDTO {
     private Double stockValue;
 
     public static StockManagementDTO fromEntity(StockManagement stock) {
+        return fromEntity(stock, stock.getQuantityAvailable());
+    }
+
+    // For callers that know a fresher quantity than the row, such as the stock ledger
+    public static StockManagementDTO fromEntity(StockManagement stock, int quantityAvailable) {
         StockManagementDTO dto = new StockManagementDTO();
         dto.setStockId(stock.getStockId());
         dto.setProductId(stock.getProduct().getProductId());
         dto.setProductName(stock.getProduct().getProductName());
         dto.setWarehouseLocation(stock.getWarehouseLocation());
-        dto.setQuantityAvailable(stock.getQuantityAvailable());
+        dto.setQuantityAvailable(quantityAvailable);
         dto.setReorderLevel(stock.getReorderLevel());
         dto.setLastRestocked(stock.getLastRestocked());
         
         // Determine stock status
-        if (stock.getQuantityAvailable() <= 0) {
+        if (quantityAvailable <= 0) {
             dto.setStockStatus("OUT_OF_STOCK");
-        } else if (stock.getQuantityAvailable() <= stock.getReorderLevel()) {
+        } else if (quantityAvailable <= stock.getReorderLevel()) {
             dto.setStockStatus("LOW_STOCK");
         } else {
             dto.setStockStatus("IN_STOCK");
         }
         
         // Calculate stock value
-        dto.setStockValue(stock.getProduct().getPrice().doubleValue() * stock.getQuantityAvailable());
+        dto.setStockValue(stock.getProduct().getPrice().doubleValue() * quantityAvailable);
         
         return dto;
     }
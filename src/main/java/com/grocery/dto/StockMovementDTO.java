@@ -0,0 +1,32 @@
+package com.grocery.dto;
+
+import com.grocery.model.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+    private Long movementId;
+    private Integer stockId;
+    private Integer productId;
+    private String warehouseLocation;
+    private Integer delta;
+    private String reason;
+    private LocalDateTime createdAt;
+
+    public static StockMovementDTO fromEntity(StockMovement movement) {
+        return new StockMovementDTO(
+            movement.getMovementId(),
+            movement.getStockId(),
+            movement.getProductId(),
+            movement.getWarehouseLocation(),
+            movement.getDelta(),
+            movement.getReason().toString(),
+            movement.getCreatedAt()
+        );
+    }
+}
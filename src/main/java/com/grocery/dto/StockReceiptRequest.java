@@ -0,0 +1,25 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// A supplier delivery note; each line names the product by id or SKU
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReceiptRequest {
+    private String reference;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Integer productId;
+        private String sku;
+        private String warehouseLocation;
+        private Integer quantity;
+    }
+}
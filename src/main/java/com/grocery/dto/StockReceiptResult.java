@@ -0,0 +1,33 @@
+package com.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReceiptResult {
+    private String reference;
+    private int applied;
+    private int rejected;
+    private long elapsedMillis;
+    private List<LineResult> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private int line;
+        private Integer productId;
+        private String warehouseLocation;
+        private Integer quantity;
+        private String result;
+        private Integer stockId;
+
+        // Quantity on hand after the whole receipt was applied
+        private Integer quantityAvailable;
+        private String message;
+    }
+}
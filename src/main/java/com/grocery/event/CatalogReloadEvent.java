@@ -0,0 +1,11 @@
+package com.grocery.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Published after bulk writes that bypass ProductService, so in-memory catalog views rebuild
+@Data
+@AllArgsConstructor
+public class CatalogReloadEvent {
+    private String reason;
+}
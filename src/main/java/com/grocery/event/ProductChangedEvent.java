@@ -0,0 +1,18 @@
+package com.grocery.event;
+
+import com.grocery.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private Integer productId;
+
+    // Null when the product was deleted
+    private ProductDTO product;
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
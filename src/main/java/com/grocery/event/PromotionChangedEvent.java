@@ -0,0 +1,18 @@
+package com.grocery.event;
+
+import com.grocery.dto.PromotionDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PromotionChangedEvent {
+    private Integer promotionId;
+
+    // Null when the promotion was deleted
+    private PromotionDTO promotion;
+
+    public boolean isDeleted() {
+        return promotion == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.grocery.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.Collection;
+
+// Published by every stock write so derived views can refresh just the rows it touched
+@Data
+@AllArgsConstructor
+public class StockChangedEvent {
+    private Collection<Integer> stockIds;
+}
@@ -0,0 +1,43 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "delivery_tracking_archive", indexes = {
+    @Index(name = "idx_delivery_archive_order", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDeliveryTracking {
+    @Id
+    private Integer trackingId;
+
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+
+    @Column(name = "delivery_person_id")
+    private Integer deliveryPersonId;
+
+    @Column(name = "time_slot_id")
+    private Integer timeSlotId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryTracking.DeliveryStatus currentStatus;
+
+    private String currentLocation;
+    private LocalDateTime estimatedDeliveryTime;
+    private LocalDateTime actualDeliveryTime;
+    private String deliveryNotes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
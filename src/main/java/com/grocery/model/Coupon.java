@@ -0,0 +1,57 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "coupons", indexes = {
+    @Index(name = "idx_coupon_promotion", columnList = "promotion_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Coupon {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer couponId;
+
+    // Stored upper-case; codes are matched case-insensitively
+    @Column(nullable = false, unique = true, length = 64)
+    private String code;
+
+    @Column(name = "promotion_id", nullable = false)
+    private Integer promotionId;
+
+    // Null means no cap
+    private Integer maxRedemptions;
+    private Integer maxRedemptionsPerUser;
+
+    @Column(nullable = false)
+    private Integer redemptionCount;
+
+    private Boolean isActive;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        redemptionCount = 0;
+        if (isActive == null) {
+            isActive = true;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
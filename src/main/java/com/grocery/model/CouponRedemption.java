@@ -0,0 +1,33 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Written in batches by CouponService, never through JPA
+@Entity
+@Table(name = "coupon_redemptions", indexes = {
+    @Index(name = "idx_redemption_coupon_user", columnList = "coupon_id, user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponRedemption {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long redemptionId;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Integer couponId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "redeemed_at", nullable = false)
+    private LocalDateTime redeemedAt;
+}
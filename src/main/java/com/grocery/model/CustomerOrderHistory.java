@@ -0,0 +1,49 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model for a customer's order list, one compact row per order kept in step with OrderService
+@Entity
+@Table(name = "customer_order_history", indexes = {
+    @Index(name = "idx_history_user_date", columnList = "user_id, order_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderHistory {
+    @Id
+    private Integer orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.OrderStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Integer itemCount;
+
+    @Column(length = 255)
+    private String itemSummary;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
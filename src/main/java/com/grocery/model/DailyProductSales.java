@@ -0,0 +1,41 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "sales_daily_product", indexes = {
+    @Index(name = "idx_sales_product_date", columnList = "product_id, sale_date")
+})
+@IdClass(DailyProductSales.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSales {
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(nullable = false)
+    private Long unitsSold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Integer productId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One row per day of counted orders, maintained incrementally by SalesRollupService
+@Entity
+@Table(name = "sales_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
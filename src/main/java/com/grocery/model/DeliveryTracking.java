@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "delivery_tracking")
+@Table(name = "delivery_tracking", indexes = {
+    @Index(name = "idx_delivery_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,60 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A fixed allocation of one product sold under a promotion; tickets and queues live in FlashSaleService
+@Entity
+@Table(name = "flash_sales", indexes = {
+    @Index(name = "idx_flash_sale_promotion", columnList = "promotion_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSale {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer flashSaleId;
+
+    @Column(name = "promotion_id", nullable = false)
+    private Integer promotionId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(nullable = false)
+    private Integer allocation;
+
+    // How long a claimed ticket is held for checkout before it goes back to the pool
+    @Column(nullable = false)
+    private Integer reservationSeconds;
+
+    @Column(nullable = false)
+    private Integer converted;
+
+    private Boolean isActive;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        converted = 0;
+        if (isActive == null) {
+            isActive = true;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
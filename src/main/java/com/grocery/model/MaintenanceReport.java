@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "maintenance_reports")
+@Table(name = "maintenance_reports", indexes = {
+    @Index(name = "idx_report_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,11 +16,11 @@ public class OrderItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer orderItemId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -30,6 +30,14 @@ public class OrderItem {
     @Column(nullable = false)
     private BigDecimal unitPrice;
 
+    // What the line was charged: unitPrice x quantity less the discount
     @Column(nullable = false)
     private BigDecimal subtotal;
+
+    @Column(nullable = false)
+    private BigDecimal discount = BigDecimal.ZERO;
+
+    // The promotion the discount came from, if any
+    @Column(name = "promotion_id")
+    private Integer promotionId;
 }
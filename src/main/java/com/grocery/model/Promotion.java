@@ -9,7 +9,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "promotions")
+@Table(name = "promotions", indexes = {
+    @Index(name = "idx_promotion_name", columnList = "promotion_name"),
+    @Index(name = "idx_promotion_start", columnList = "start_date"),
+    @Index(name = "idx_promotion_end", columnList = "end_date"),
+    @Index(name = "idx_promotion_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,37 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Running totals per promotion, flushed from memory by PromotionStatsService
+@Entity
+@Table(name = "promotion_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionStats {
+    @Id
+    @Column(name = "promotion_id")
+    private Integer promotionId;
+
+    // Orders the promotion was applied to
+    @Column(nullable = false)
+    private Long redemptions;
+
+    @Column(nullable = false)
+    private Long unitsSold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal discountTotal;
+
+    // Line totals after the discount
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal attributedRevenue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
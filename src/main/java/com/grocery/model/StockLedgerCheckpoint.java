@@ -0,0 +1,20 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Highest stock ledger journal segment whose deltas are already in stock_management
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerCheckpoint {
+    @Id
+    private Integer checkpointId;
+
+    @Column(nullable = false)
+    private Long lastSegment;
+}
@@ -7,7 +7,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_management")
+@Table(name = "stock_management", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stock_product_warehouse", columnNames = {"product_id", "warehouse_location"})
+}, indexes = {
+    @Index(name = "idx_stock_quantity", columnList = "quantity_available"),
+    @Index(name = "idx_stock_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,44 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Append-only record of every change to a stock row's quantity
+@Entity
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_movement_stock_time", columnList = "stock_id, created_at"),
+    @Index(name = "idx_movement_time", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long movementId;
+
+    @Column(name = "stock_id", nullable = false)
+    private Integer stockId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    private String warehouseLocation;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Reason reason;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Reason {
+        CREATED, RESTOCK, RECEIPT, ADJUSTMENT, CORRECTION, SALE, CANCELLATION, DELETED, RECONCILIATION
+    }
+}
@@ -0,0 +1,32 @@
+package com.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Quantity of every stock row at taken_at; all rows of one snapshot share the same taken_at
+@Entity
+@Table(name = "stock_snapshots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_snapshot_time_stock", columnNames = {"taken_at", "stock_id"})
+}, indexes = {
+    @Index(name = "idx_snapshot_stock_time", columnList = "stock_id, taken_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long snapshotId;
+
+    @Column(name = "stock_id", nullable = false)
+    private Integer stockId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
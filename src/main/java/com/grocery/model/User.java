@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_user_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
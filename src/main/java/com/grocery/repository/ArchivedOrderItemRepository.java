@@ -0,0 +1,12 @@
+package com.grocery.repository;
+
+import com.grocery.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Integer> {
+    List<ArchivedOrderItem> findByOrderIdInOrderByOrderItemId(Collection<Integer> orderIds);
+}
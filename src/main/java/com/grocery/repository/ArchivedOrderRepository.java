@@ -0,0 +1,11 @@
+package com.grocery.repository;
+
+import com.grocery.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Integer> {
+    List<ArchivedOrder> findByUserIdOrderByOrderDateDesc(Integer userId);
+}
@@ -0,0 +1,18 @@
+package com.grocery.repository;
+
+import com.grocery.model.Coupon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Integer> {
+    Optional<Coupon> findByCode(String code);
+    boolean existsByCode(String code);
+    List<Coupon> findByPromotionId(Integer promotionId);
+
+    @Query("SELECT c.code FROM Coupon c")
+    List<String> findAllCodes();
+}
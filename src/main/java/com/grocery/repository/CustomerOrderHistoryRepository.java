@@ -0,0 +1,31 @@
+package com.grocery.repository;
+
+import com.grocery.model.CustomerOrderHistory;
+import com.grocery.model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerOrderHistoryRepository extends JpaRepository<CustomerOrderHistory, Integer> {
+    List<CustomerOrderHistory> findByUserIdOrderByOrderDateDesc(Integer userId);
+
+    @Modifying
+    @Query("UPDATE CustomerOrderHistory h SET h.status = :status, h.updatedAt = :now WHERE h.orderId = :orderId")
+    int updateStatus(@Param("orderId") Integer orderId, @Param("status") Order.OrderStatus status, @Param("now") LocalDateTime now);
+
+    // Copies the current order status, so rows a concurrent writer changed stay in step too
+    @Modifying
+    @Query("UPDATE CustomerOrderHistory h SET h.status = (SELECT o.status FROM Order o WHERE o.orderId = h.orderId), " +
+           "h.updatedAt = :now WHERE h.orderId IN :orderIds")
+    int syncStatuses(@Param("orderIds") Collection<Integer> orderIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.orderId FROM Order o WHERE NOT EXISTS (SELECT 1 FROM CustomerOrderHistory h WHERE h.orderId = o.orderId) " +
+           "ORDER BY o.orderId")
+    List<Integer> findOrderIdsWithoutHistory();
+}
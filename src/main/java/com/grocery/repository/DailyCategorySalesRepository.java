@@ -0,0 +1,18 @@
+package com.grocery.repository;
+
+import com.grocery.dto.CategorySalesDTO;
+import com.grocery.model.DailyCategorySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyCategorySalesRepository extends JpaRepository<DailyCategorySales, DailyCategorySales.Key> {
+    @Query("SELECT new com.grocery.dto.CategorySalesDTO(s.category, SUM(s.unitsSold), SUM(s.revenue)) " +
+           "FROM DailyCategorySales s WHERE s.saleDate BETWEEN :from AND :to " +
+           "GROUP BY s.category ORDER BY SUM(s.revenue) DESC")
+    List<CategorySalesDTO> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
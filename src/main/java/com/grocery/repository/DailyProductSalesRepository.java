@@ -0,0 +1,20 @@
+package com.grocery.repository;
+
+import com.grocery.dto.ProductSalesDTO;
+import com.grocery.model.DailyProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+    @Query("SELECT new com.grocery.dto.ProductSalesDTO(s.productId, p.productName, SUM(s.unitsSold), SUM(s.revenue)) " +
+           "FROM DailyProductSales s LEFT JOIN Product p ON p.productId = s.productId " +
+           "WHERE s.saleDate BETWEEN :from AND :to " +
+           "GROUP BY s.productId, p.productName ORDER BY SUM(s.revenue) DESC")
+    List<ProductSalesDTO> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -3,14 +3,26 @@ package com.grocery.repository;
 import com.grocery.model.DeliveryTracking;
 import com.grocery.model.DeliveryTimeSlot;
 import com.grocery.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface DeliveryTrackingRepository extends JpaRepository<DeliveryTracking, Integer> {
@@ -30,4 +42,30 @@ public interface DeliveryTrackingRepository extends JpaRepository<DeliveryTracki
         LocalDateTime start, 
         LocalDateTime end
     );
+    
+    Window<DeliveryTracking> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Each row is {trackingId, currentStatus}
+    @Query("SELECT t.trackingId, t.currentStatus FROM DeliveryTracking t WHERE t.trackingId IN :trackingIds")
+    List<Object[]> findStatuses(@Param("trackingIds") Collection<Integer> trackingIds);
+
+    @Modifying
+    @Query("UPDATE DeliveryTracking t SET t.currentStatus = :to, t.updatedAt = :now " +
+           "WHERE t.trackingId IN :trackingIds AND t.currentStatus = :from")
+    int updateStatuses(@Param("trackingIds") Collection<Integer> trackingIds, @Param("from") DeliveryTracking.DeliveryStatus from,
+                       @Param("to") DeliveryTracking.DeliveryStatus to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE DeliveryTracking t SET t.currentStatus = :to, t.actualDeliveryTime = :now, t.updatedAt = :now " +
+           "WHERE t.trackingId IN :trackingIds AND t.currentStatus = :from")
+    int updateStatusesDelivered(@Param("trackingIds") Collection<Integer> trackingIds, @Param("from") DeliveryTracking.DeliveryStatus from,
+                                @Param("to") DeliveryTracking.DeliveryStatus to, @Param("now") LocalDateTime now);
+    
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM DeliveryTracking t JOIN FETCH t.order o JOIN FETCH o.user " +
+           "LEFT JOIN FETCH t.deliveryPerson LEFT JOIN FETCH t.timeSlot ORDER BY t.trackingId")
+    Stream<DeliveryTracking> streamAll();
 }
@@ -0,0 +1,11 @@
+package com.grocery.repository;
+
+import com.grocery.model.FlashSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface FlashSaleRepository extends JpaRepository<FlashSale, Integer> {
+    List<FlashSale> findByIsActiveTrue();
+}
@@ -1,6 +1,10 @@
 package com.grocery.repository;
 
 import com.grocery.model.MaintenanceReport;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -9,4 +13,5 @@ import java.util.List;
 public interface MaintenanceReportRepository extends JpaRepository<MaintenanceReport, Integer> {
     List<MaintenanceReport> findByStatus(MaintenanceReport.ReportStatus status);
     List<MaintenanceReport> findByReportedByUserId(Integer userId);
+    Window<MaintenanceReport> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
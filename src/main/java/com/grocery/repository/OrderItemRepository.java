@@ -2,10 +2,17 @@ package com.grocery.repository;
 
 import com.grocery.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     List<OrderItem> findByOrderOrderId(Integer orderId);
+
+    @Query("SELECT i.product.productId, SUM(i.quantity) FROM OrderItem i WHERE i.order.orderId IN :orderIds " +
+           "GROUP BY i.product.productId")
+    List<Object[]> sumQuantitiesByProduct(@Param("orderIds") Collection<Integer> orderIds);
 }
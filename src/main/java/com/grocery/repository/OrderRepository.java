@@ -1,12 +1,75 @@
 package com.grocery.repository;
 
 import com.grocery.model.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
+    // Read paths load items and their products with the order instead of one query per row
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsByOrderId(Integer orderId);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     List<Order> findByUserUserId(Integer userId);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     List<Order> findByStatus(Order.OrderStatus status);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product ORDER BY o.orderId")
+    List<Order> findAllWithItems();
+
+    // Each row is {orderId, status}
+    @Query("SELECT o.orderId, o.status FROM Order o WHERE o.orderId IN :orderIds")
+    List<Object[]> findStatuses(@Param("orderIds") Collection<Integer> orderIds);
+
+    // Locks the orders that are still in the given status, sorted so concurrent callers lock in the same order
+    @Query(value = "SELECT order_id FROM orders WHERE order_id IN (:orderIds) AND status = :status ORDER BY order_id FOR UPDATE",
+           nativeQuery = true)
+    List<Integer> lockIdsWithStatus(@Param("orderIds") Collection<Integer> orderIds, @Param("status") String status);
+
+    // Reads the order with its row locked, so a status change and its rollup transition see the same previous status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> lockById(@Param("orderId") Integer orderId);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now WHERE o.orderId IN :orderIds AND o.status = :from")
+    int updateStatuses(@Param("orderIds") Collection<Integer> orderIds, @Param("from") Order.OrderStatus from,
+                       @Param("to") Order.OrderStatus to, @Param("now") LocalDateTime now);
+
+    Window<Order> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product " +
+           "WHERE o.orderId IN :orderIds")
+    List<Order> findAllWithItemsByIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    // Each row is an Object[] of {Order, OrderItem or null}, ordered so that an order's items are adjacent
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o, i FROM Order o JOIN FETCH o.user LEFT JOIN o.orderItems i LEFT JOIN FETCH i.product " +
+           "ORDER BY o.orderId, i.orderItemId")
+    Stream<Object[]> streamAllWithItems();
 }
@@ -1,6 +1,10 @@
 package com.grocery.repository;
 
 import com.grocery.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -9,4 +13,5 @@ import java.util.List;
 public interface ProductRepository extends JpaRepository<Product, Integer> {
     List<Product> findByCategory(String category);
     List<Product> findByProductNameContainingIgnoreCase(String productName);
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
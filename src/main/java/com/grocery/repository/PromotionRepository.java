@@ -1,6 +1,10 @@
 package com.grocery.repository;
 
 import com.grocery.model.Promotion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
@@ -10,4 +14,5 @@ import java.util.List;
 public interface PromotionRepository extends JpaRepository<Promotion, Integer> {
     List<Promotion> findByIsActiveTrue();
     List<Promotion> findByStartDateLessThanEqualAndEndDateGreaterThanEqual(LocalDate startDate, LocalDate endDate);
+    Window<Promotion> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
@@ -1,11 +1,51 @@
 package com.grocery.repository;
 
 import com.grocery.model.StockManagement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StockManagementRepository extends JpaRepository<StockManagement, Integer> {
     Optional<StockManagement> findByProductProductId(Integer productId);
+    Window<StockManagement> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT s FROM StockManagement s WHERE s.product.productId IN :productIds " +
+           "ORDER BY s.product.productId, s.quantityAvailable DESC")
+    List<StockManagement> findByProductIds(@Param("productIds") Collection<Integer> productIds);
+
+    // Only succeeds when the row still has enough stock, so the check and the decrement are one statement
+    @Modifying
+    @Query("UPDATE StockManagement s SET s.quantityAvailable = s.quantityAvailable - :quantity, s.updatedAt = :now " +
+           "WHERE s.stockId = :stockId AND s.quantityAvailable >= :quantity")
+    int reserve(@Param("stockId") Integer stockId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Puts cancelled stock back without touching last_restocked
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockManagement s SET s.quantityAvailable = s.quantityAvailable + :quantity, s.updatedAt = :now " +
+           "WHERE s.stockId = :stockId")
+    int release(@Param("stockId") Integer stockId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Same idea for signed adjustments: the read, the add and the non-negative check happen in the database
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockManagement s SET s.quantityAvailable = s.quantityAvailable + :quantity, s.lastRestocked = :now, " +
+           "s.updatedAt = :now WHERE s.stockId = :stockId AND s.quantityAvailable + :quantity >= 0")
+    int adjustQuantity(@Param("stockId") Integer stockId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Leaves quantity_available alone, which the stock ledger owns while it is enabled
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockManagement s SET s.warehouseLocation = :warehouseLocation, s.reorderLevel = :reorderLevel, " +
+           "s.lastRestocked = :now, s.updatedAt = :now WHERE s.stockId = :stockId")
+    int updateDetails(@Param("stockId") Integer stockId, @Param("warehouseLocation") String warehouseLocation,
+                      @Param("reorderLevel") Integer reorderLevel, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,14 @@
+package com.grocery.repository;
+
+import com.grocery.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    List<StockMovement> findByStockIdAndCreatedAtBetweenOrderByCreatedAtAscMovementIdAsc(
+        Integer stockId, LocalDateTime from, LocalDateTime to, Limit limit);
+}
@@ -0,0 +1,448 @@
+package com.grocery.service;
+
+import com.grocery.dto.CouponDTO;
+import com.grocery.dto.CouponRedemptionRequest;
+import com.grocery.dto.CouponValidationDTO;
+import com.grocery.dto.PromotionDTO;
+import com.grocery.model.Coupon;
+import com.grocery.repository.CouponRepository;
+import com.grocery.repository.PromotionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+// Validation and redemption never wait on the database: unknown codes are turned away by a Bloom filter,
+// caps are enforced with CAS on in-memory counters, and redemptions are written behind in batches.
+// Only validation and redemption skip the transaction, so they don't hold a connection per request.
+@Service
+public class CouponService {
+    private static final int MIN_FILTER_CAPACITY = 1024;
+    private static final String INSERT_REDEMPTION_SQL =
+        "INSERT INTO coupon_redemptions (coupon_id, user_id, order_id, redeemed_at) VALUES (?, ?, ?, ?)";
+    private static final String ADD_REDEMPTIONS_SQL =
+        "UPDATE coupons SET redemption_count = redemption_count + ?, updated_at = ? WHERE coupon_id = ?";
+    private static final String COUNT_BY_USER_SQL =
+        "SELECT user_id, COUNT(*) AS redemptions FROM coupon_redemptions WHERE coupon_id = ? GROUP BY user_id";
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PromotionCalendar promotionCalendar;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile CodeFilter filter;
+    // Guards adds against the swap at the end of a rebuild; codes added while a rebuild reads the
+    // table are collected here and copied into the new filter, which may have missed them
+    private final Object filterLock = new Object();
+    private List<String> addedDuringRebuild;
+    // Loaded on a coupon's first use and kept, so counters always include redemptions not yet flushed
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Object[]> pending = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+
+    private static final class Counters {
+        private final Integer couponId;
+        private final Integer promotionId;
+        private final Integer maxRedemptions;
+        private final Integer maxRedemptionsPerUser;
+        private final AtomicInteger redeemed;
+        private final ConcurrentHashMap<Integer, AtomicInteger> byUser = new ConcurrentHashMap<>();
+        private volatile boolean active;
+
+        private Counters(Coupon coupon) {
+            this.couponId = coupon.getCouponId();
+            this.promotionId = coupon.getPromotionId();
+            this.maxRedemptions = coupon.getMaxRedemptions();
+            this.maxRedemptionsPerUser = coupon.getMaxRedemptionsPerUser();
+            this.redeemed = new AtomicInteger(coupon.getRedemptionCount());
+            this.active = Boolean.TRUE.equals(coupon.getIsActive());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildFilter();
+    }
+
+    @Transactional
+    public CouponDTO createCoupon(Coupon coupon) {
+        String code = normalize(coupon.getCode());
+        if (code == null) {
+            throw new IllegalArgumentException("Coupon code is required");
+        }
+        if (coupon.getPromotionId() == null || !promotionRepository.existsById(coupon.getPromotionId())) {
+            throw new IllegalArgumentException("Promotion not found with ID: " + coupon.getPromotionId());
+        }
+        if ((coupon.getMaxRedemptions() != null && coupon.getMaxRedemptions() <= 0)
+                || (coupon.getMaxRedemptionsPerUser() != null && coupon.getMaxRedemptionsPerUser() <= 0)) {
+            throw new IllegalArgumentException("Redemption limits must be positive");
+        }
+        if (couponRepository.existsByCode(code)) {
+            throw new IllegalStateException("Coupon code already exists: " + code);
+        }
+        coupon.setCouponId(null);
+        coupon.setCode(code);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        // Added once the row is committed, so a rolled-back coupon never reaches the filter
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addToFilter(code);
+                }
+            });
+        } else {
+            addToFilter(code);
+        }
+        return CouponDTO.fromEntity(savedCoupon);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CouponDTO> getAllCoupons() {
+        return couponRepository.findAll().stream()
+            .map(this::toLiveDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public CouponDTO getCouponById(Integer couponId) {
+        return couponRepository.findById(couponId).map(this::toLiveDTO).orElse(null);
+    }
+
+    @Transactional
+    public CouponDTO toggleCouponStatus(Integer couponId) {
+        Optional<Coupon> coupon = couponRepository.findById(couponId);
+        if (coupon.isPresent()) {
+            Coupon existingCoupon = coupon.get();
+            existingCoupon.setIsActive(!Boolean.TRUE.equals(existingCoupon.getIsActive()));
+            Coupon updatedCoupon = couponRepository.save(existingCoupon);
+            Counters loaded = counters.get(updatedCoupon.getCode());
+            if (loaded != null) {
+                loaded.active = updatedCoupon.getIsActive();
+            }
+            return toLiveDTO(updatedCoupon);
+        }
+        return null;
+    }
+
+    public CouponValidationDTO validate(String code, Integer userId) {
+        String normalized = normalize(code);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Coupon code is required");
+        }
+        Counters coupon = lookup(normalized);
+        if (coupon == null) {
+            return CouponValidationDTO.rejected(normalized, "Unknown coupon code");
+        }
+        PromotionDTO promotion = promotionCalendar.getPromotion(coupon.promotionId, LocalDate.now());
+        String problem = check(coupon, promotion);
+        if (problem == null) {
+            problem = capProblem(coupon, userId);
+        }
+        return describe(normalized, coupon, promotion, userId, problem);
+    }
+
+    public CouponValidationDTO redeem(String code, CouponRedemptionRequest request) {
+        String normalized = normalize(code);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Coupon code is required");
+        }
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        Counters coupon = lookup(normalized);
+        if (coupon == null) {
+            throw new IllegalArgumentException("Unknown coupon code: " + normalized);
+        }
+        PromotionDTO promotion = promotionCalendar.getPromotion(coupon.promotionId, LocalDate.now());
+        String problem = check(coupon, promotion);
+        if (problem == null) {
+            problem = reserve(coupon, request.getUserId());
+        }
+        if (problem != null) {
+            throw new IllegalStateException(problem);
+        }
+        pending.add(new Object[] { coupon.couponId, request.getUserId(), request.getOrderId(), LocalDateTime.now() });
+        CouponValidationDTO redeemed = describe(normalized, coupon, promotion, request.getUserId(), null);
+        redeemed.setMessage("Coupon redeemed");
+        return redeemed;
+    }
+
+    @Scheduled(fixedDelayString = "${grocery.coupons.flush-interval-ms:250}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<Object[]> batch = new ArrayList<>();
+            Object[] row;
+            while ((row = pending.poll()) != null) {
+                batch.add(row);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<Integer, Integer> perCoupon = new TreeMap<>();
+            batch.forEach(r -> perCoupon.merge((Integer) r[0], 1, Integer::sum));
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> counts = new ArrayList<>(perCoupon.size());
+            perCoupon.forEach((couponId, redeemed) -> counts.add(new Object[] { redeemed, now, couponId }));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_REDEMPTION_SQL, batch);
+                    jdbcTemplate.batchUpdate(ADD_REDEMPTIONS_SQL, counts);
+                });
+            } catch (RuntimeException e) {
+                // The counters already hold these redemptions, so they are kept and retried on the next run
+                pending.addAll(batch);
+                System.out.println("Coupon redemption flush failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Counters lookup(String code) {
+        if (!filter().mightContain(code)) {
+            return null;
+        }
+        Counters loaded = counters.get(code);
+        if (loaded != null) {
+            return loaded;
+        }
+        Optional<Coupon> coupon = couponRepository.findByCode(code);
+        return coupon.map(c -> counters.computeIfAbsent(code, k -> load(c))).orElse(null);
+    }
+
+    private Counters load(Coupon coupon) {
+        Counters loaded = new Counters(coupon);
+        jdbcTemplate.query(COUNT_BY_USER_SQL, rs -> {
+            loaded.byUser.put(rs.getInt("user_id"), new AtomicInteger(rs.getInt("redemptions")));
+        }, coupon.getCouponId());
+        return loaded;
+    }
+
+    private static String check(Counters coupon, PromotionDTO promotion) {
+        if (!coupon.active) {
+            return "Coupon is not active";
+        }
+        if (promotion == null || !Boolean.TRUE.equals(promotion.getIsActive()) || !"ACTIVE".equals(promotion.getStatus())) {
+            return "Promotion is not running";
+        }
+        return null;
+    }
+
+    private static String capProblem(Counters coupon, Integer userId) {
+        if (coupon.maxRedemptions != null && coupon.redeemed.get() >= coupon.maxRedemptions) {
+            return "Coupon redemption limit reached";
+        }
+        if (userId != null && coupon.maxRedemptionsPerUser != null && usedBy(coupon, userId) >= coupon.maxRedemptionsPerUser) {
+            return "Coupon already used the maximum number of times by this user";
+        }
+        return null;
+    }
+
+    // Claims the user's slot first, then the global one, handing the user's back if the coupon is exhausted
+    private static String reserve(Counters coupon, Integer userId) {
+        AtomicInteger used = coupon.byUser.computeIfAbsent(userId, k -> new AtomicInteger());
+        if (!tryIncrement(used, coupon.maxRedemptionsPerUser)) {
+            return "Coupon already used the maximum number of times by this user";
+        }
+        if (!tryIncrement(coupon.redeemed, coupon.maxRedemptions)) {
+            used.decrementAndGet();
+            return "Coupon redemption limit reached";
+        }
+        return null;
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, Integer cap) {
+        while (true) {
+            int current = counter.get();
+            if (cap != null && current >= cap) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static int usedBy(Counters coupon, Integer userId) {
+        AtomicInteger used = coupon.byUser.get(userId);
+        return used != null ? used.get() : 0;
+    }
+
+    private static CouponValidationDTO describe(String code, Counters coupon, PromotionDTO promotion, Integer userId, String problem) {
+        CouponValidationDTO dto = new CouponValidationDTO();
+        dto.setCode(code);
+        dto.setValid(problem == null);
+        dto.setMessage(problem != null ? problem : "Coupon is valid");
+        dto.setPromotionId(coupon.promotionId);
+        if (promotion != null) {
+            dto.setPromotionName(promotion.getPromotionName());
+            dto.setDiscountPercentage(promotion.getDiscountPercentage());
+            dto.setDiscountAmount(promotion.getDiscountAmount());
+        }
+        if (coupon.maxRedemptions != null) {
+            dto.setRemainingRedemptions(Math.max(0, coupon.maxRedemptions - coupon.redeemed.get()));
+        }
+        if (userId != null && coupon.maxRedemptionsPerUser != null) {
+            dto.setRemainingForUser(Math.max(0, coupon.maxRedemptionsPerUser - usedBy(coupon, userId)));
+        }
+        return dto;
+    }
+
+    // The stored count lags the counters by up to one flush
+    private CouponDTO toLiveDTO(Coupon coupon) {
+        CouponDTO dto = CouponDTO.fromEntity(coupon);
+        Counters loaded = counters.get(coupon.getCode());
+        if (loaded != null) {
+            dto.setRedemptionCount(loaded.redeemed.get());
+        }
+        return dto;
+    }
+
+    private static String normalize(String code) {
+        return code != null && !code.isBlank() ? code.trim().toUpperCase() : null;
+    }
+
+    private CodeFilter filter() {
+        CodeFilter current = filter;
+        return current != null ? current : rebuildFilter();
+    }
+
+    // Rebuilds run one at a time; adds only wait for the swap, not for the table read
+    private synchronized CodeFilter rebuildFilter() {
+        synchronized (filterLock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        List<String> codes = couponRepository.findAllCodes();
+        CodeFilter rebuilt = new CodeFilter(Math.max(MIN_FILTER_CAPACITY, codes.size() * 2));
+        codes.forEach(rebuilt::add);
+        synchronized (filterLock) {
+            addedDuringRebuild.forEach(rebuilt::add);
+            addedDuringRebuild = null;
+            filter = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    private void addToFilter(String code) {
+        boolean full;
+        synchronized (filterLock) {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(code);
+            }
+            CodeFilter current = filter;
+            // Before the first build the committed code is picked up by the table read
+            if (current == null) {
+                return;
+            }
+            current.add(code);
+            full = current.isFull();
+        }
+        // Past its capacity the false-positive rate climbs, so the filter is rebuilt at twice the size
+        if (full) {
+            rebuildIfFull();
+        }
+    }
+
+    private synchronized void rebuildIfFull() {
+        if (filter.isFull()) {
+            rebuildFilter();
+        }
+    }
+
+    // About 10 bits per code and 7 probes keep false positives near 1% up to capacity
+    private static final class CodeFilter {
+        private static final int BITS_PER_CODE = 10;
+        private static final int PROBES = 7;
+
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int capacity;
+        private final AtomicInteger size = new AtomicInteger();
+
+        private CodeFilter(int capacity) {
+            this.capacity = capacity;
+            this.bits = capacity * BITS_PER_CODE;
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void add(String code) {
+            long hash = hash(code);
+            for (int i = 0; i < PROBES; i++) {
+                int bit = probe(hash, i);
+                long mask = 1L << (bit & 63);
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+            size.incrementAndGet();
+        }
+
+        private boolean mightContain(String code) {
+            long hash = hash(code);
+            for (int i = 0; i < PROBES; i++) {
+                int bit = probe(hash, i);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isFull() {
+            return size.get() >= capacity;
+        }
+
+        // Double hashing: probe i is h1 + i * h2, both halves of one 64-bit hash
+        private int probe(long hash, int i) {
+            int combined = (int) hash + i * (int) (hash >>> 32);
+            return (combined & Integer.MAX_VALUE) % bits;
+        }
+
+        // FNV-1a followed by a murmur finalizer so both halves are well mixed
+        private static long hash(String code) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : code.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.grocery.service;
+
+import com.grocery.dto.CustomerOrderHistoryDTO;
+import com.grocery.dto.OrderDTO;
+import com.grocery.dto.OrderItemDTO;
+import com.grocery.model.Order;
+import com.grocery.repository.CustomerOrderHistoryRepository;
+import com.grocery.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class CustomerOrderHistoryService {
+    private static final int SUMMARY_LENGTH = 255;
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+    // The row id is the order id, so a plain JPA save() would SELECT before every insert
+    private static final String UPSERT_HISTORY_SQL =
+        "INSERT INTO customer_order_history (order_id, user_id, order_date, status, total_amount, item_count, item_summary, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE user_id = VALUES(user_id), order_date = VALUES(order_date), status = VALUES(status), " +
+        "total_amount = VALUES(total_amount), item_count = VALUES(item_count), item_summary = VALUES(item_summary), " +
+        "updated_at = VALUES(updated_at)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CustomerOrderHistoryRepository historyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Orders written before the projection existed (or by the data loader) get their rows here.
+    // Each chunk commits on its own and leaves nothing behind in the persistence context.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfill() {
+        List<Integer> missing = historyRepository.findOrderIdsWithoutHistory();
+        for (int start = 0; start < missing.size(); start += BACKFILL_CHUNK_SIZE) {
+            List<Integer> chunk = missing.subList(start, Math.min(start + BACKFILL_CHUNK_SIZE, missing.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> rows = orderRepository.findAllWithItemsByIdIn(chunk).stream()
+                    .map(o -> toRow(OrderDTO.fromEntity(o)))
+                    .collect(Collectors.toList());
+                jdbcTemplate.batchUpdate(UPSERT_HISTORY_SQL, rows);
+                entityManager.clear();
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerOrderHistoryDTO> getHistory(Integer userId) {
+        return historyRepository.findByUserIdOrderByOrderDateDesc(userId).stream()
+            .map(CustomerOrderHistoryDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+
+    public void record(OrderDTO order) {
+        jdbcTemplate.update(UPSERT_HISTORY_SQL, toRow(order));
+    }
+
+    public void updateStatus(Integer orderId, Order.OrderStatus status) {
+        historyRepository.updateStatus(orderId, status, LocalDateTime.now());
+    }
+
+    public void syncStatuses(List<Integer> orderIds) {
+        historyRepository.syncStatuses(orderIds, LocalDateTime.now());
+    }
+
+    public void delete(Integer orderId) {
+        if (historyRepository.existsById(orderId)) {
+            historyRepository.deleteById(orderId);
+        }
+    }
+
+    private Object[] toRow(OrderDTO order) {
+        List<OrderItemDTO> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+        return new Object[] {
+            order.getOrderId(), order.getUserId(), order.getOrderDate(), order.getStatus(),
+            order.getTotalAmount(), items.stream().mapToInt(OrderItemDTO::getQuantity).sum(), summarize(items), LocalDateTime.now()
+        };
+    }
+
+    // e.g. "2x Fresh Apples, 1x Bananas +3 more", cut to fit the column
+    private String summarize(List<OrderItemDTO> items) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemDTO item = items.get(i);
+            String part = (i > 0 ? ", " : "") + item.getQuantity() + "x " + item.getProductName();
+            String more = " +" + (items.size() - i) + " more";
+            if (summary.length() + part.length() + more.length() > SUMMARY_LENGTH) {
+                summary.append(more);
+                break;
+            }
+            summary.append(part);
+        }
+        return summary.toString();
+    }
+}
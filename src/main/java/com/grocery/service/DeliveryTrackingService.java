@@ -1,19 +1,44 @@
 package com.grocery.service;
 
+import com.grocery.dto.BulkStatusUpdateResult;
+import com.grocery.dto.CursorPage;
 import com.grocery.dto.DeliveryTrackingDTO;
 import com.grocery.model.DeliveryTracking;
 import com.grocery.repository.DeliveryTrackingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class DeliveryTrackingService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "trackingId", Integer.class,
+        "createdAt", LocalDateTime.class
+    );
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final StatusTransitions<DeliveryTracking.DeliveryStatus> STATUS_TRANSITIONS = new StatusTransitions<>(Map.of(
+        DeliveryTracking.DeliveryStatus.PENDING, Set.of(DeliveryTracking.DeliveryStatus.PICKED_UP, DeliveryTracking.DeliveryStatus.FAILED),
+        DeliveryTracking.DeliveryStatus.PICKED_UP, Set.of(DeliveryTracking.DeliveryStatus.IN_TRANSIT, DeliveryTracking.DeliveryStatus.FAILED),
+        DeliveryTracking.DeliveryStatus.IN_TRANSIT, Set.of(DeliveryTracking.DeliveryStatus.DELIVERED, DeliveryTracking.DeliveryStatus.FAILED),
+        // A failed delivery can be queued up again
+        DeliveryTracking.DeliveryStatus.FAILED, Set.of(DeliveryTracking.DeliveryStatus.PENDING)
+    ));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private DeliveryTrackingRepository deliveryTrackingRepository;
 
@@ -38,6 +63,26 @@ public class DeliveryTrackingService {
             .collect(Collectors.toList());
     }
 
+    public CursorPage<DeliveryTrackingDTO> getTrackingsPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "trackingId", SORTABLE_FIELDS);
+        return query.toPage(deliveryTrackingRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), DeliveryTrackingDTO::fromEntity);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTrackings(Consumer<DeliveryTrackingDTO> sink) {
+        long exported = 0;
+        try (Stream<DeliveryTracking> trackings = deliveryTrackingRepository.streamAll()) {
+            Iterator<DeliveryTracking> iterator = trackings.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(DeliveryTrackingDTO.fromEntity(iterator.next()));
+                if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
+    }
+
     public List<DeliveryTrackingDTO> getTrackingsByStatus(DeliveryTracking.DeliveryStatus status) {
         return deliveryTrackingRepository.findAll().stream()
             .filter(t -> t.getCurrentStatus() == status)
@@ -98,6 +143,16 @@ public class DeliveryTrackingService {
         return null;
     }
 
+    public BulkStatusUpdateResult updateDeliveryStatuses(List<Integer> trackingIds, DeliveryTracking.DeliveryStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return STATUS_TRANSITIONS.apply(trackingIds, status,
+            ids -> deliveryTrackingRepository.findStatuses(ids).stream()
+                .collect(Collectors.toMap(r -> (Integer) r[0], r -> (DeliveryTracking.DeliveryStatus) r[1])),
+            (ids, from, to) -> to == DeliveryTracking.DeliveryStatus.DELIVERED
+                ? deliveryTrackingRepository.updateStatusesDelivered(ids, from, to, now)
+                : deliveryTrackingRepository.updateStatuses(ids, from, to, now));
+    }
+
     public DeliveryTrackingDTO updateDeliveryLocation(Integer trackingId, String location) {
         Optional<DeliveryTracking> tracking = deliveryTrackingRepository.findById(trackingId);
         if (tracking.isPresent()) {
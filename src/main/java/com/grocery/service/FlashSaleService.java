@@ -0,0 +1,455 @@
+package com.grocery.service;
+
+import com.grocery.dto.FlashSaleDTO;
+import com.grocery.dto.FlashSaleEntryDTO;
+import com.grocery.dto.OrderCreationRequest;
+import com.grocery.dto.OrderDTO;
+import com.grocery.dto.PromotionDTO;
+import com.grocery.model.FlashSale;
+import com.grocery.repository.FlashSaleRepository;
+import com.grocery.repository.ProductRepository;
+import com.grocery.repository.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// "First N customers" deals. Each running sale keeps a pool of pre-allocated tickets in memory; customers
+// claim one lock-free, or wait in a FIFO queue when every ticket is held, and a claimed ticket is reserved
+// for a bounded time. Only checkout touches orders and stock_management, through OrderService.
+@Service
+public class FlashSaleService {
+    private static final String ADD_CONVERSION_SQL =
+        "UPDATE flash_sales SET converted = converted + 1, updated_at = ? WHERE flash_sale_id = ?";
+
+    @Value("${grocery.flash-sales.reservation-seconds:120}")
+    private int defaultReservationSeconds;
+
+    @Autowired
+    private FlashSaleRepository flashSaleRepository;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PromotionCalendar promotionCalendar;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Integer, Sale> sales = new ConcurrentHashMap<>();
+    private final DelayQueue<Expiry> expirations = new DelayQueue<>();
+
+    public enum EntryStatus {
+        WAITING, RESERVED, CONVERTING, CONVERTED, EXPIRED, CANCELLED, SOLD_OUT
+    }
+
+    private static final class Sale {
+        private final Integer flashSaleId;
+        private final Integer promotionId;
+        private final Integer productId;
+        private final int allocation;
+        private final int reservationSeconds;
+        private final AtomicInteger converted;
+        private volatile boolean active;
+
+        private final ConcurrentLinkedQueue<Integer> tickets = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Entry> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger waitingCount = new AtomicInteger();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong served = new AtomicLong();
+        private final ConcurrentHashMap<Integer, Entry> byUser = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+
+        // One thread at a time hands tickets to the queue; the others just flag that there is more to do
+        private final ReentrantLock dispatchLock = new ReentrantLock();
+        private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+        private Sale(FlashSale flashSale) {
+            this.flashSaleId = flashSale.getFlashSaleId();
+            this.promotionId = flashSale.getPromotionId();
+            this.productId = flashSale.getProductId();
+            this.allocation = flashSale.getAllocation();
+            this.reservationSeconds = flashSale.getReservationSeconds();
+            this.converted = new AtomicInteger(flashSale.getConverted());
+            this.active = Boolean.TRUE.equals(flashSale.getIsActive());
+            // Reservations don't survive a restart, so every unconverted ticket starts back in the pool
+            for (int ticket = converted.get() + 1; ticket <= allocation; ticket++) {
+                tickets.add(ticket);
+            }
+            available.set(tickets.size());
+        }
+
+        private Integer takeTicket() {
+            Integer ticket = tickets.poll();
+            if (ticket != null) {
+                available.decrementAndGet();
+            }
+            return ticket;
+        }
+    }
+
+    private static final class Entry {
+        private final String entryId = UUID.randomUUID().toString();
+        private final Integer userId;
+        private final long sequence;
+        private final AtomicReference<EntryStatus> status = new AtomicReference<>(EntryStatus.WAITING);
+        private volatile Integer ticket;
+        private volatile LocalDateTime expiresAt;
+        private volatile Integer orderId;
+
+        private Entry(Integer userId, long sequence) {
+            this.userId = userId;
+            this.sequence = sequence;
+        }
+
+        private boolean isLive() {
+            EntryStatus current = status.get();
+            return current == EntryStatus.WAITING || current == EntryStatus.RESERVED || current == EntryStatus.CONVERTING;
+        }
+    }
+
+    private static final class Expiry implements Delayed {
+        private final Sale sale;
+        private final Entry entry;
+        private final long deadlineNanos;
+
+        private Expiry(Sale sale, Entry entry, long deadlineNanos) {
+            this.sale = sale;
+            this.entry = entry;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((Expiry) other).deadlineNanos);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        flashSaleRepository.findByIsActiveTrue().forEach(f -> sales.put(f.getFlashSaleId(), new Sale(f)));
+    }
+
+    @Transactional
+    public FlashSaleDTO createFlashSale(FlashSale flashSale) {
+        if (flashSale.getPromotionId() == null || !promotionRepository.existsById(flashSale.getPromotionId())) {
+            throw new IllegalArgumentException("Promotion not found with ID: " + flashSale.getPromotionId());
+        }
+        if (flashSale.getProductId() == null || !productRepository.existsById(flashSale.getProductId())) {
+            throw new IllegalArgumentException("Product not found with ID: " + flashSale.getProductId());
+        }
+        if (flashSale.getAllocation() == null || flashSale.getAllocation() <= 0) {
+            throw new IllegalArgumentException("Allocation must be positive");
+        }
+        if (flashSale.getReservationSeconds() == null) {
+            flashSale.setReservationSeconds(defaultReservationSeconds);
+        } else if (flashSale.getReservationSeconds() <= 0) {
+            throw new IllegalArgumentException("Reservation time must be positive");
+        }
+        flashSale.setFlashSaleId(null);
+        FlashSale savedFlashSale = flashSaleRepository.save(flashSale);
+        if (Boolean.TRUE.equals(savedFlashSale.getIsActive())) {
+            sales.put(savedFlashSale.getFlashSaleId(), new Sale(savedFlashSale));
+        }
+        return toLiveDTO(savedFlashSale);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FlashSaleDTO> getAllFlashSales() {
+        return flashSaleRepository.findAll().stream()
+            .map(this::toLiveDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public FlashSaleDTO getFlashSaleById(Integer flashSaleId) {
+        return flashSaleRepository.findById(flashSaleId).map(this::toLiveDTO).orElse(null);
+    }
+
+    @Transactional
+    public FlashSaleDTO toggleFlashSaleStatus(Integer flashSaleId) {
+        Optional<FlashSale> flashSale = flashSaleRepository.findById(flashSaleId);
+        if (flashSale.isPresent()) {
+            FlashSale existingFlashSale = flashSale.get();
+            existingFlashSale.setIsActive(!Boolean.TRUE.equals(existingFlashSale.getIsActive()));
+            FlashSale updatedFlashSale = flashSaleRepository.save(existingFlashSale);
+            // Closing keeps the pool so customers holding a ticket can still check out
+            Sale sale = sales.computeIfAbsent(flashSaleId, k -> new Sale(updatedFlashSale));
+            sale.active = updatedFlashSale.getIsActive();
+            return toLiveDTO(updatedFlashSale);
+        }
+        return null;
+    }
+
+    // Claims a ticket straight from the pool when nobody is queued, otherwise joins the back of the queue.
+    // A customer has at most one live entry per sale, so repeating the call returns the same entry.
+    public FlashSaleEntryDTO enter(Integer flashSaleId, Integer userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        Sale sale = getSale(flashSaleId);
+        if (!sale.active || !isPromotionRunning(sale)) {
+            throw new IllegalStateException("Flash sale is not open");
+        }
+        if (sale.converted.get() >= sale.allocation) {
+            throw new IllegalStateException("Flash sale is sold out");
+        }
+        Entry candidate = new Entry(userId, sale.admitted.incrementAndGet());
+        Entry entry = sale.byUser.compute(userId, (k, current) ->
+            current != null && (current.isLive() || current.status.get() == EntryStatus.CONVERTED) ? current : candidate);
+        if (entry != candidate) {
+            if (entry.status.get() == EntryStatus.CONVERTED) {
+                throw new IllegalStateException("Flash sale item already bought by user " + userId);
+            }
+            return toDTO(sale, entry);
+        }
+        sale.byId.put(entry.entryId, entry);
+
+        if (sale.waitingCount.get() == 0) {
+            Integer ticket = sale.takeTicket();
+            if (ticket != null) {
+                reserve(sale, entry, ticket);
+                return toDTO(sale, entry);
+            }
+        }
+        // Queued customers beyond the allocation could never be served
+        if (sale.waitingCount.get() >= sale.allocation) {
+            entry.status.set(EntryStatus.CANCELLED);
+            sale.byUser.remove(userId, entry);
+            sale.byId.remove(entry.entryId);
+            throw new IllegalStateException("Flash sale queue is full");
+        }
+        sale.waitingCount.incrementAndGet();
+        sale.waiting.add(entry);
+        dispatch(sale);
+        return toDTO(sale, entry);
+    }
+
+    public FlashSaleEntryDTO getEntry(Integer flashSaleId, String entryId) {
+        Sale sale = sales.get(flashSaleId);
+        Entry entry = sale != null ? sale.byId.get(entryId) : null;
+        return entry != null ? toDTO(sale, entry) : null;
+    }
+
+    public boolean cancel(Integer flashSaleId, String entryId) {
+        Sale sale = sales.get(flashSaleId);
+        Entry entry = sale != null ? sale.byId.get(entryId) : null;
+        if (entry == null) {
+            return false;
+        }
+        if (entry.status.compareAndSet(EntryStatus.RESERVED, EntryStatus.CANCELLED)) {
+            releaseTicket(sale, entry);
+        } else {
+            // A queued entry is only marked; the dispatcher skips it when it reaches the head
+            entry.status.compareAndSet(EntryStatus.WAITING, EntryStatus.CANCELLED);
+        }
+        return true;
+    }
+
+    // Turns a reserved ticket into a real order for one unit at the promotional price
+    public OrderDTO checkout(Integer flashSaleId, String entryId, OrderCreationRequest details) {
+        Sale sale = getSale(flashSaleId);
+        Entry entry = sale.byId.get(entryId);
+        if (entry == null) {
+            throw new IllegalArgumentException("Flash sale entry not found: " + entryId);
+        }
+        if (!entry.status.compareAndSet(EntryStatus.RESERVED, EntryStatus.CONVERTING)) {
+            throw new IllegalStateException("Entry is " + entry.status.get() + ", not RESERVED");
+        }
+        if (LocalDateTime.now().isAfter(entry.expiresAt)) {
+            entry.status.set(EntryStatus.EXPIRED);
+            releaseTicket(sale, entry);
+            throw new IllegalStateException("Reservation has expired");
+        }
+        // The promotion may have ended, been paused or been deleted since the ticket was handed out
+        PromotionDTO promotion = promotionCalendar.getPromotion(sale.promotionId, LocalDate.now());
+        if (!isRunning(promotion)) {
+            entry.status.set(EntryStatus.EXPIRED);
+            releaseTicket(sale, entry);
+            throw new IllegalStateException("Flash sale promotion is no longer running");
+        }
+
+        OrderCreationRequest.OrderItemRequest item = new OrderCreationRequest.OrderItemRequest();
+        item.setProductId(sale.productId);
+        item.setQuantity(1);
+        // Only the delivery details come from the caller; the user, item and price are the sale's
+        OrderCreationRequest request = new OrderCreationRequest();
+        if (details != null) {
+            request.setDeliveryAddress(details.getDeliveryAddress());
+            request.setDeliveryName(details.getDeliveryName());
+            request.setDeliveryPhone(details.getDeliveryPhone());
+            request.setOrderNotes(details.getOrderNotes());
+            request.setPaymentMethod(details.getPaymentMethod());
+        }
+        request.setUserId(entry.userId);
+        request.setOrderItems(List.of(item));
+        // The line is priced under the sale's promotion even if another one would give a bigger discount
+        Map<Integer, PromotionDTO> promotionOverrides = Map.of(sale.productId, promotion);
+        OrderDTO order;
+        try {
+            order = transactionTemplate.execute(status -> {
+                OrderDTO created = orderService.createOrder(request, promotionOverrides);
+                jdbcTemplate.update(ADD_CONVERSION_SQL, LocalDateTime.now(), sale.flashSaleId);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            // The customer keeps the ticket to retry until the reservation runs out
+            entry.status.set(EntryStatus.RESERVED);
+            throw e;
+        }
+        entry.orderId = order.getOrderId();
+        entry.status.set(EntryStatus.CONVERTED);
+        sale.reserved.decrementAndGet();
+        if (sale.converted.incrementAndGet() >= sale.allocation) {
+            soldOut(sale);
+        }
+        return order;
+    }
+
+    @Scheduled(fixedDelayString = "${grocery.flash-sales.expiry-check-ms:250}")
+    public void expireReservations() {
+        Expiry expiry;
+        while ((expiry = expirations.poll()) != null) {
+            if (expiry.entry.status.get() == EntryStatus.CONVERTING) {
+                // Checkout is running; if it fails the entry is reserved again, so look once more shortly
+                expirations.add(new Expiry(expiry.sale, expiry.entry, System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+            } else if (expiry.entry.status.compareAndSet(EntryStatus.RESERVED, EntryStatus.EXPIRED)) {
+                releaseTicket(expiry.sale, expiry.entry);
+            }
+        }
+    }
+
+    private void reserve(Sale sale, Entry entry, Integer ticket) {
+        if (!entry.status.compareAndSet(EntryStatus.WAITING, EntryStatus.RESERVED)) {
+            returnTicket(sale, ticket);
+            return;
+        }
+        entry.ticket = ticket;
+        entry.expiresAt = LocalDateTime.now().plusSeconds(sale.reservationSeconds);
+        sale.reserved.incrementAndGet();
+        sale.served.accumulateAndGet(entry.sequence, Math::max);
+        expirations.add(new Expiry(sale, entry, System.nanoTime() + TimeUnit.SECONDS.toNanos(sale.reservationSeconds)));
+    }
+
+    private void releaseTicket(Sale sale, Entry entry) {
+        sale.reserved.decrementAndGet();
+        returnTicket(sale, entry.ticket);
+    }
+
+    private void returnTicket(Sale sale, Integer ticket) {
+        sale.tickets.add(ticket);
+        sale.available.incrementAndGet();
+        dispatch(sale);
+    }
+
+    private void dispatch(Sale sale) {
+        sale.dispatchRequested.set(true);
+        while (sale.dispatchRequested.get() && sale.dispatchLock.tryLock()) {
+            try {
+                sale.dispatchRequested.set(false);
+                while (true) {
+                    Entry head = sale.waiting.peek();
+                    if (head == null) {
+                        break;
+                    }
+                    if (head.status.get() != EntryStatus.WAITING) {
+                        sale.waiting.poll();
+                        sale.waitingCount.decrementAndGet();
+                        continue;
+                    }
+                    Integer ticket = sale.takeTicket();
+                    if (ticket == null) {
+                        break;
+                    }
+                    sale.waiting.poll();
+                    sale.waitingCount.decrementAndGet();
+                    reserve(sale, head, ticket);
+                }
+            } finally {
+                sale.dispatchLock.unlock();
+            }
+        }
+    }
+
+    private void soldOut(Sale sale) {
+        Entry entry;
+        while ((entry = sale.waiting.poll()) != null) {
+            sale.waitingCount.decrementAndGet();
+            entry.status.compareAndSet(EntryStatus.WAITING, EntryStatus.SOLD_OUT);
+        }
+    }
+
+    private Sale getSale(Integer flashSaleId) {
+        Sale sale = sales.get(flashSaleId);
+        if (sale == null) {
+            throw new IllegalArgumentException("Flash sale not found with ID: " + flashSaleId);
+        }
+        return sale;
+    }
+
+    private boolean isPromotionRunning(Sale sale) {
+        return isRunning(promotionCalendar.getPromotion(sale.promotionId, LocalDate.now()));
+    }
+
+    private static boolean isRunning(PromotionDTO promotion) {
+        return promotion != null && Boolean.TRUE.equals(promotion.getIsActive()) && "ACTIVE".equals(promotion.getStatus());
+    }
+
+    private FlashSaleEntryDTO toDTO(Sale sale, Entry entry) {
+        EntryStatus status = entry.status.get();
+        Long position = status == EntryStatus.WAITING ? Math.max(0, entry.sequence - sale.served.get() - 1) : null;
+        return new FlashSaleEntryDTO(entry.entryId, sale.flashSaleId, entry.userId, status.name(), position,
+            entry.ticket, entry.expiresAt, entry.orderId);
+    }
+
+    private FlashSaleDTO toLiveDTO(FlashSale flashSale) {
+        FlashSaleDTO dto = FlashSaleDTO.fromEntity(flashSale);
+        Sale sale = sales.get(flashSale.getFlashSaleId());
+        if (sale != null) {
+            dto.setConverted(sale.converted.get());
+            dto.setAvailable(sale.available.get());
+            dto.setReserved(sale.reserved.get());
+            dto.setWaiting(sale.waitingCount.get());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,174 @@
+package com.grocery.service;
+
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.event.ProductChangedEvent;
+import com.grocery.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Exact inventory value (price x quantity per stock row) kept as running BigDecimal totals, overall
+// and per category and warehouse. Stock and product changes adjust only the rows they touched, and a
+// periodic full recompute replaces the totals and reports any drift.
+@Service
+public class InventoryValuationService {
+    private static final String UNASSIGNED_WAREHOUSE = "Unassigned";
+
+    private static final String LOAD_SQL =
+        "SELECT s.stock_id, s.product_id, p.category, s.warehouse_location, s.quantity_available, p.price " +
+        "FROM stock_management s JOIN products p ON p.product_id = s.product_id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    private static final class Position {
+        private final String category;
+        private final String warehouse;
+        private final BigDecimal value;
+
+        private Position(String category, String warehouse, BigDecimal value) {
+            this.category = category;
+            this.warehouse = warehouse;
+            this.value = value;
+        }
+    }
+
+    private final StockRowLocks rowLocks = new StockRowLocks();
+
+    // Guarded by this; the overall total is also published through a volatile for lock-free reads
+    private Map<Integer, Position> positions = new HashMap<>();
+    private Map<String, BigDecimal> byCategory = new HashMap<>();
+    private Map<String, BigDecimal> byWarehouse = new HashMap<>();
+    private volatile BigDecimal total = BigDecimal.ZERO;
+
+    public BigDecimal getTotalValue() {
+        return total;
+    }
+
+    public synchronized Map<String, BigDecimal> getValueByCategory() {
+        return new TreeMap<>(byCategory);
+    }
+
+    public synchronized Map<String, BigDecimal> getValueByWarehouse() {
+        return new TreeMap<>(byWarehouse);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        recompute();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        recompute();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        revalue(event.getStockIds());
+    }
+
+    // A price or category change revalues every stock row of the product
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            return;
+        }
+        revalue(load(" WHERE s.product_id = :productId", new MapSqlParameterSource("productId", event.getProductId())).keySet());
+    }
+
+    // Each row is read and applied under its lock, so a read that is older than one already applied never wins
+    private void revalue(Collection<Integer> stockIds) {
+        if (stockIds.isEmpty()) {
+            return;
+        }
+        rowLocks.withLocks(stockIds, () -> {
+            Map<Integer, Position> rows = load(" WHERE s.stock_id IN (:stockIds)", new MapSqlParameterSource("stockIds", stockIds));
+            synchronized (this) {
+                stockIds.forEach(stockId -> apply(stockId, rows.get(stockId)));
+            }
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${grocery.inventory.valuation.recompute-ms:3600000}",
+               initialDelayString = "${grocery.inventory.valuation.recompute-ms:3600000}")
+    public void scheduledRecompute() {
+        recompute();
+    }
+
+    // Replaces the running totals with a fresh sum and returns how far they had drifted
+    public BigDecimal recompute() {
+        Map<Integer, Position> fresh = load("", new MapSqlParameterSource());
+        synchronized (this) {
+            BigDecimal previousTotal = total;
+            boolean initialized = !positions.isEmpty();
+            positions = new HashMap<>();
+            byCategory = new HashMap<>();
+            byWarehouse = new HashMap<>();
+            total = BigDecimal.ZERO;
+            fresh.forEach(this::apply);
+
+            BigDecimal drift = total.subtract(previousTotal);
+            if (initialized && drift.signum() != 0) {
+                System.out.println("InventoryValuation: corrected drift of " + drift + " (was " + previousTotal + ", now " + total + ")");
+            }
+            return initialized ? drift : BigDecimal.ZERO;
+        }
+    }
+
+    private void apply(Integer stockId, Position current) {
+        Position previous = current != null ? positions.put(stockId, current) : positions.remove(stockId);
+        if (previous != null) {
+            add(byCategory, previous.category, previous.value.negate());
+            add(byWarehouse, previous.warehouse, previous.value.negate());
+            total = total.subtract(previous.value);
+        }
+        if (current != null) {
+            add(byCategory, current.category, current.value);
+            add(byWarehouse, current.warehouse, current.value);
+            total = total.add(current.value);
+        }
+    }
+
+    private static void add(Map<String, BigDecimal> totals, String key, BigDecimal amount) {
+        BigDecimal updated = totals.getOrDefault(key, BigDecimal.ZERO).add(amount);
+        // Zero entries are dropped so incremental and recomputed breakdowns compare equal
+        if (updated.signum() == 0) {
+            totals.remove(key);
+        } else {
+            totals.put(key, updated);
+        }
+    }
+
+    private Map<Integer, Position> load(String where, MapSqlParameterSource params) {
+        Map<Integer, Position> rows = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOAD_SQL + where, params, (ResultSet rs) -> {
+            rows.put(rs.getInt("stock_id"), toPosition(rs));
+        });
+        return rows;
+    }
+
+    private Position toPosition(ResultSet rs) throws SQLException {
+        int stockId = rs.getInt("stock_id");
+        int quantity = stockLedger.quantityOr(stockId, rs.getInt("quantity_available"));
+        String warehouse = rs.getString("warehouse_location");
+        return new Position(rs.getString("category"), warehouse != null ? warehouse : UNASSIGNED_WAREHOUSE,
+            rs.getBigDecimal("price").multiply(BigDecimal.valueOf(quantity)));
+    }
+}
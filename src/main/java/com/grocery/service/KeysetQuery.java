@@ -0,0 +1,141 @@
+package com.grocery.service;
+
+import com.grocery.dto.CursorPage;
+import lombok.Getter;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Parses the limit/after/sort parameters of list endpoints into a keyset (seek) scroll request.
+// Cursors encode the sort key values of the last row returned, so every page is an index seek.
+@Getter
+public class KeysetQuery {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final Sort sort;
+    private final ScrollPosition position;
+    private final Limit limit;
+    private final String sortParam;
+    private final Map<String, Class<?>> keyTypes;
+
+    private KeysetQuery(Sort sort, ScrollPosition position, Limit limit, String sortParam, Map<String, Class<?>> keyTypes) {
+        this.sort = sort;
+        this.position = position;
+        this.limit = limit;
+        this.sortParam = sortParam;
+        this.keyTypes = keyTypes;
+    }
+
+    public static boolean isRequested(Integer limit, String after, String sort) {
+        return limit != null || after != null || sort != null;
+    }
+
+    // sortableFields must only contain non-null columns, the id field included
+    public static KeysetQuery parse(Integer limit, String after, String sort, String idField, Map<String, Class<?>> sortableFields) {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        String field = idField;
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            field = parts[0].trim();
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + parts[1]));
+            }
+            if (!sortableFields.containsKey(field)) {
+                throw new IllegalArgumentException("Cannot sort by " + field + ", expected one of " + sortableFields.keySet());
+            }
+        }
+
+        // The id is always the last sort key so that the seek position is unique
+        Map<String, Class<?>> keyTypes = new LinkedHashMap<>();
+        keyTypes.put(field, sortableFields.get(field));
+        keyTypes.put(idField, sortableFields.get(idField));
+        Sort.Direction keyDirection = direction;
+        Sort keysetSort = Sort.by(keyTypes.keySet().stream()
+            .map(property -> new Sort.Order(keyDirection, property))
+            .collect(Collectors.toList()));
+
+        ScrollPosition position = after == null || after.isBlank()
+            ? ScrollPosition.keyset()
+            : ScrollPosition.forward(decode(after, keyTypes));
+
+        return new KeysetQuery(keysetSort, position, Limit.of(pageSize), field + "," + direction.name().toLowerCase(), keyTypes);
+    }
+
+    public <E, D> CursorPage<D> toPage(Window<E> window, Function<E, D> mapper) {
+        List<D> items = window.stream().map(mapper).collect(Collectors.toList());
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(last.getKeys());
+        }
+        return new CursorPage<>(items, nextCursor, nextCursor != null, sortParam);
+    }
+
+    private String encode(Map<String, ?> keys) {
+        String raw = keyTypes.keySet().stream()
+            .map(property -> property + "=" + URLEncoder.encode(String.valueOf(keys.get(property)), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> decode(String cursor, Map<String, Class<?>> keyTypes) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String pair : raw.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("malformed cursor");
+                }
+                String property = pair.substring(0, separator);
+                Class<?> type = keyTypes.get(property);
+                if (type == null) {
+                    throw new IllegalArgumentException("Cursor does not match sort order");
+                }
+                keys.put(property, convert(URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8), type));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+        if (!keys.keySet().equals(keyTypes.keySet())) {
+            throw new IllegalArgumentException("Invalid cursor: cursor does not match sort order");
+        }
+        return keys;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        return value;
+    }
+}
@@ -1,18 +1,26 @@
 package com.grocery.service;
 
+import com.grocery.dto.CursorPage;
 import com.grocery.dto.MaintenanceReportDTO;
 import com.grocery.model.MaintenanceReport;
 import com.grocery.repository.MaintenanceReportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MaintenanceReportService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "reportId", Integer.class,
+        "createdAt", LocalDateTime.class
+    );
+
     @Autowired
     private MaintenanceReportRepository maintenanceReportRepository;
 
@@ -32,6 +40,11 @@ public class MaintenanceReportService {
             .collect(Collectors.toList());
     }
 
+    public CursorPage<MaintenanceReportDTO> getReportsPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "reportId", SORTABLE_FIELDS);
+        return query.toPage(maintenanceReportRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), MaintenanceReportDTO::fromEntity);
+    }
+
     public List<MaintenanceReportDTO> getReportsByStatus(MaintenanceReport.ReportStatus status) {
         return maintenanceReportRepository.findByStatus(status).stream()
             .map(MaintenanceReportDTO::fromEntity)
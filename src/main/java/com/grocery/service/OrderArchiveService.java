@@ -0,0 +1,139 @@
+package com.grocery.service;
+
+import com.grocery.dto.OrderDTO;
+import com.grocery.dto.OrderItemDTO;
+import com.grocery.model.ArchivedOrder;
+import com.grocery.model.ArchivedOrderItem;
+import com.grocery.repository.ArchivedOrderItemRepository;
+import com.grocery.repository.ArchivedOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Moves completed orders, with their items and delivery tracking, into the *_archive tables so the
+// hot tables only hold orders that are still in play. Reads fall back to the archive via OrderService.
+@Service
+public class OrderArchiveService {
+    private static final String SELECT_ARCHIVABLE_SQL =
+        "SELECT order_id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND order_date < :cutoff " +
+        "ORDER BY order_id LIMIT :limit FOR UPDATE";
+
+    private static final String ARCHIVE_ORDERS_SQL =
+        "INSERT INTO orders_archive (order_id, user_id, order_date, total_amount, status, delivery_address, delivery_date, " +
+        "created_at, updated_at, archived_at) " +
+        "SELECT order_id, user_id, order_date, total_amount, status, delivery_address, delivery_date, created_at, updated_at, :now " +
+        "FROM orders WHERE order_id IN (:orderIds)";
+
+    private static final String ARCHIVE_ITEMS_SQL =
+        "INSERT INTO order_items_archive (order_item_id, order_id, product_id, product_name, quantity, unit_price, subtotal, discount, promotion_id) " +
+        "SELECT i.order_item_id, i.order_id, i.product_id, p.product_name, i.quantity, i.unit_price, i.subtotal, i.discount, i.promotion_id " +
+        "FROM order_items i LEFT JOIN products p ON p.product_id = i.product_id WHERE i.order_id IN (:orderIds)";
+
+    private static final String ARCHIVE_TRACKING_SQL =
+        "INSERT INTO delivery_tracking_archive (tracking_id, order_id, delivery_person_id, time_slot_id, current_status, " +
+        "current_location, estimated_delivery_time, actual_delivery_time, delivery_notes, created_at, updated_at) " +
+        "SELECT tracking_id, order_id, delivery_person_id, time_slot_id, current_status, current_location, " +
+        "estimated_delivery_time, actual_delivery_time, delivery_notes, created_at, updated_at " +
+        "FROM delivery_tracking WHERE order_id IN (:orderIds)";
+
+    // Children first so the foreign keys to orders are never violated
+    private static final List<String> DELETE_HOT_ROWS_SQL = List.of(
+        "DELETE FROM delivery_tracking WHERE order_id IN (:orderIds)",
+        "DELETE FROM order_items WHERE order_id IN (:orderIds)",
+        "DELETE FROM orders WHERE order_id IN (:orderIds)"
+    );
+
+    @Value("${grocery.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grocery.archive.order-age-days:365}")
+    private int orderAgeDays;
+
+    @Value("${grocery.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Scheduled(cron = "${grocery.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            int archived = archiveCompletedOrders();
+            System.out.println("Archived " + archived + " completed orders");
+        }
+    }
+
+    // Each chunk commits on its own so the job never holds locks on more than one chunk of orders
+    public int archiveCompletedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(orderAgeDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+        } while (moved == chunkSize);
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Integer> orderIds = namedParameterJdbcTemplate.queryForList(SELECT_ARCHIVABLE_SQL,
+            new MapSqlParameterSource("cutoff", cutoff).addValue("limit", chunkSize), Integer.class);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds).addValue("now", LocalDateTime.now());
+        namedParameterJdbcTemplate.update(ARCHIVE_ORDERS_SQL, params);
+        namedParameterJdbcTemplate.update(ARCHIVE_ITEMS_SQL, params);
+        namedParameterJdbcTemplate.update(ARCHIVE_TRACKING_SQL, params);
+        for (String sql : DELETE_HOT_ROWS_SQL) {
+            namedParameterJdbcTemplate.update(sql, params);
+        }
+        return orderIds.size();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OrderDTO getArchivedOrder(Integer orderId) {
+        return archivedOrderRepository.findById(orderId)
+            .map(order -> toDTOs(List.of(order)).get(0))
+            .orElse(null);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<OrderDTO> getArchivedOrdersByUserId(Integer userId) {
+        List<ArchivedOrder> orders = archivedOrderRepository.findByUserIdOrderByOrderDateDesc(userId);
+        return orders.isEmpty() ? List.of() : toDTOs(orders);
+    }
+
+    private List<OrderDTO> toDTOs(List<ArchivedOrder> orders) {
+        Map<Integer, List<OrderItemDTO>> itemsByOrder = archivedOrderItemRepository
+            .findByOrderIdInOrderByOrderItemId(orders.stream().map(ArchivedOrder::getOrderId).toList()).stream()
+            .collect(Collectors.groupingBy(ArchivedOrderItem::getOrderId, Collectors.mapping(
+                i -> new OrderItemDTO(i.getOrderItemId(), i.getProductId(), i.getProductName(), i.getQuantity(), i.getUnitPrice(), i.getSubtotal(),
+                    i.getDiscount(), i.getPromotionId()),
+                Collectors.toList())));
+        return orders.stream()
+            .map(o -> new OrderDTO(o.getOrderId(), o.getUserId(), o.getOrderDate(), o.getTotalAmount(), o.getStatus().toString(),
+                o.getDeliveryAddress(), o.getDeliveryDate(), itemsByOrder.getOrDefault(o.getOrderId(), List.of())))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,153 @@
+package com.grocery.service;
+
+import com.grocery.dto.OrderCreationRequest;
+import com.grocery.dto.OrderDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Optional group-commit mode for order bursts: accepted orders wait in a bounded queue and a single
+// writer commits them in groups, so many checkouts share one transaction commit.
+@Service
+public class OrderIngestionQueue {
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    @Value("${grocery.orders.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${grocery.orders.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${grocery.orders.group-commit.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${grocery.orders.group-commit.max-wait-ms:5}")
+    private long maxWaitMillis;
+
+    @Autowired
+    private OrderService orderService;
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "order-group-commit");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completes once the order's group has committed; fails fast when the queue is full
+    public CompletableFuture<OrderDTO> submit(OrderCreationRequest request) {
+        PendingOrder pending = new PendingOrder(request);
+        try {
+            if (!running || !queue.offer(pending, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Order queue is full, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing order");
+        }
+        return pending.future;
+    }
+
+    private void drainLoop() {
+        List<PendingOrder> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+
+                // Keep collecting until the group is full or the oldest order has waited long enough
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (group.size() < maxBatch) {
+                    queue.drainTo(group, maxBatch - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                System.err.println("Order group commit failed: " + e.getMessage());
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> group) {
+        List<CompletableFuture<OrderDTO>> results;
+        try {
+            results = orderService.createOrders(group.stream().map(p -> p.request).toList());
+        } catch (RuntimeException groupError) {
+            // The shared transaction itself failed, so fall back to committing each order on its own
+            for (PendingOrder pending : group) {
+                try {
+                    pending.future.complete(orderService.createOrder(pending.request));
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            CompletableFuture<OrderDTO> future = group.get(i).future;
+            results.get(i).whenComplete((order, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(order);
+                }
+            });
+        }
+    }
+
+    private static class PendingOrder {
+        private final OrderCreationRequest request;
+        private final CompletableFuture<OrderDTO> future = new CompletableFuture<>();
+
+        private PendingOrder(OrderCreationRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -1,23 +1,68 @@
 package com.grocery.service;
 
+import com.grocery.dto.BatchResult;
+import com.grocery.dto.BulkStatusUpdateResult;
+import com.grocery.dto.CursorPage;
+import com.grocery.dto.CustomerOrderHistoryDTO;
 import com.grocery.dto.OrderDTO;
 import com.grocery.dto.OrderCreationRequest;
+import com.grocery.dto.OrderItemDTO;
+import com.grocery.dto.PriceQuoteDTO;
+import com.grocery.dto.ProductDTO;
+import com.grocery.dto.PromotionDTO;
 import com.grocery.model.Order;
 import com.grocery.model.OrderItem;
+import com.grocery.model.Product;
 import com.grocery.model.User;
 import com.grocery.repository.OrderRepository;
 import com.grocery.repository.OrderItemRepository;
+import com.grocery.repository.ProductRepository;
 import com.grocery.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class OrderService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "orderId", Integer.class,
+        "orderDate", LocalDateTime.class,
+        "totalAmount", BigDecimal.class,
+        "createdAt", LocalDateTime.class
+    );
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    private static final StatusTransitions<Order.OrderStatus> STATUS_TRANSITIONS = new StatusTransitions<>(Map.of(
+        Order.OrderStatus.PENDING, Set.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED),
+        Order.OrderStatus.CONFIRMED, Set.of(Order.OrderStatus.SHIPPED, Order.OrderStatus.CANCELLED),
+        Order.OrderStatus.SHIPPED, Set.of(Order.OrderStatus.DELIVERED)
+    ));
+    private static final String INSERT_ORDER_ITEM_SQL =
+        "INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal, discount, promotion_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -27,39 +72,157 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
 
-    public OrderDTO createOrder(Order order) {
-        // If order has userId but no user entity, fetch the user
-        if (order.getUser() == null && order.getUserId() != null) {
-            Optional<User> user = userRepository.findById(order.getUserId());
-            if (user.isPresent()) {
-                order.setUser(user.get());
-            } else {
-                throw new RuntimeException("User not found with ID: " + order.getUserId());
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private CustomerOrderHistoryService customerOrderHistoryService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private PromotionStatsService promotionStatsService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public OrderDTO createOrder(OrderCreationRequest request) {
+        return createOrder(request, Map.of());
+    }
+
+    // promotionOverrides pins the given products to one promotion instead of the best applicable one
+    public OrderDTO createOrder(OrderCreationRequest request, Map<Integer, PromotionDTO> promotionOverrides) {
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (request.getOrderItems() == null || request.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        User user = userRepository.findById(request.getUserId())
+            .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + request.getUserId()));
+
+        // Merge repeated products so each one is reserved with a single statement
+        Map<Integer, Integer> quantitiesByProduct = new TreeMap<>();
+        for (OrderCreationRequest.OrderItemRequest item : request.getOrderItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each item needs a product ID and a positive quantity");
             }
+            quantitiesByProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
-        
-        // Clear order items from the order to avoid cascade issues
-        order.setOrderItems(null);
-        
-        // Save the order first to get the ID
-        Order savedOrder = orderRepository.save(order);
-        
-        // Note: Order items will be handled separately if needed
-        // For now, we'll just save the order without items
-        // This prevents the cascade issue with OrderItem
-        
-        return OrderDTO.fromEntity(savedOrder);
+
+        Map<Integer, Product> products = productRepository.findAllById(quantitiesByProduct.keySet()).stream()
+            .collect(Collectors.toMap(Product::getProductId, p -> p));
+        for (Integer productId : quantitiesByProduct.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new IllegalArgumentException("Product not found with ID: " + productId);
+            }
+        }
+
+        stockManagementService.reserveStock(quantitiesByProduct);
+
+        // Line prices come from the catalog, not the client, and each line is priced exactly once; the
+        // promotion it got is stored with it so analytics read what was charged
+        List<OrderItem> items = new ArrayList<>();
+        BigDecimal itemsTotal = BigDecimal.ZERO;
+        for (Map.Entry<Integer, Integer> line : quantitiesByProduct.entrySet()) {
+            Product product = products.get(line.getKey());
+            PromotionDTO override = promotionOverrides.get(line.getKey());
+            PriceQuoteDTO.Line priced = override != null
+                ? pricingService.priceLine(ProductDTO.fromEntity(product), line.getValue(), override)
+                : pricingService.priceLine(ProductDTO.fromEntity(product), line.getValue());
+            items.add(new OrderItem(null, null, product, line.getValue(), priced.getUnitPrice(), priced.getTotal(),
+                priced.getDiscount(), priced.getPromotionId()));
+            itemsTotal = itemsTotal.add(priced.getTotal());
+        }
+
+        Order order = new Order();
+        order.setUser(user);
+        // New orders always start as PENDING and are charged the server-side total; the client's
+        // status and totalAmount are ignored so they can't skip the transition rules or set a price
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setDeliveryAddress(request.getDeliveryAddress());
+        order.setTotalAmount(itemsTotal);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+
+        // IDENTITY keys stop Hibernate from batching inserts, so the items go in as one JDBC batch
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, items.stream()
+            .map(i -> new Object[] {
+                savedOrder.getOrderId(), i.getProduct().getProductId(), i.getQuantity(), i.getUnitPrice(), i.getSubtotal(),
+                i.getDiscount(), i.getPromotionId()
+            })
+            .collect(Collectors.toList()));
+
+        OrderDTO orderDTO = OrderDTO.fromEntity(savedOrder);
+        orderDTO.setOrderItems(orderItemRepository.findByOrderOrderId(savedOrder.getOrderId()).stream()
+            .map(OrderItemDTO::fromEntity)
+            .collect(Collectors.toList()));
+        customerOrderHistoryService.record(orderDTO);
+        salesRollupService.recordTransition(List.of(savedOrder.getOrderId()), null, savedOrder.getStatus());
+        promotionStatsService.recordOrder(orderDTO.getOrderItems());
+        return orderDTO;
+    }
+
+    // Commits a whole group of checkouts in one transaction. Each order runs behind its own savepoint,
+    // so an order that fails validation or runs out of stock is undone without failing the others.
+    public List<CompletableFuture<OrderDTO>> createOrders(List<OrderCreationRequest> requests) {
+        List<CompletableFuture<OrderDTO>> results = new ArrayList<>(requests.size());
+        for (OrderCreationRequest request : requests) {
+            // Earlier orders must reach the database before the savepoint, or a rollback would lose them
+            entityManager.flush();
+            Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+            try {
+                results.add(CompletableFuture.completedFuture(createOrder(request)));
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.releaseSavepoint(savepoint);
+                    return null;
+                });
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.rollback(savepoint);
+                    return null;
+                });
+                // Drop anything the failed order left in the persistence context
+                entityManager.clear();
+                results.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return results;
     }
 
     public OrderDTO getOrderById(Integer orderId) {
-        Optional<Order> order = orderRepository.findById(orderId);
-        return order.map(OrderDTO::fromEntity).orElse(null);
+        Optional<Order> order = orderRepository.findWithItemsByOrderId(orderId);
+        // Completed orders past the retention window live in the archive tables
+        return order.map(OrderDTO::fromEntity).orElseGet(() -> orderArchiveService.getArchivedOrder(orderId));
+    }
+
+    @Transactional(readOnly = true)
+    public BatchResult<OrderDTO> getOrdersByIds(List<Integer> orderIds) {
+        Set<Integer> requestedIds = BatchResult.requestedIds(orderIds);
+        Map<Integer, OrderDTO> found = orderRepository.findAllWithItemsByIdIn(requestedIds).stream()
+            .collect(Collectors.toMap(Order::getOrderId, OrderDTO::fromEntity));
+        return BatchResult.of(requestedIds, found);
     }
 
     public List<OrderDTO> getOrdersByUserId(Integer userId) {
-        return orderRepository.findByUserUserId(userId).stream()
+        List<OrderDTO> orders = orderRepository.findByUserUserId(userId).stream()
             .map(OrderDTO::fromEntity)
             .collect(Collectors.toList());
+        orders.addAll(orderArchiveService.getArchivedOrdersByUserId(userId));
+        return orders;
+    }
+
+    public List<CustomerOrderHistoryDTO> getOrderHistory(Integer userId) {
+        return customerOrderHistoryService.getHistory(userId);
     }
 
     public List<OrderDTO> getOrdersByStatus(Order.OrderStatus status) {
@@ -69,27 +232,118 @@ public class OrderService {
     }
 
     public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderRepository.findAllWithItems().stream()
             .map(OrderDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    public CursorPage<OrderDTO> getOrdersPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "orderId", SORTABLE_FIELDS);
+        Window<Order> window = orderRepository.findBy(query.getPosition(), query.getSort(), query.getLimit());
+        // A fetch join can't be combined with the page limit, so the page's items are loaded in one
+        // follow-up query that initializes the collections of the orders already in the persistence context
+        if (!window.isEmpty()) {
+            orderRepository.findAllWithItemsByIdIn(window.stream().map(Order::getOrderId).toList());
+        }
+        return query.toPage(window, OrderDTO::fromEntity);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportOrders(Consumer<OrderDTO> sink) {
+        long exported = 0;
+        try (Stream<Object[]> rows = orderRepository.streamAllWithItems()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            OrderDTO current = null;
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Order order = (Order) row[0];
+                OrderItem item = (OrderItem) row[1];
+                if (current == null || !current.getOrderId().equals(order.getOrderId())) {
+                    if (current != null) {
+                        sink.accept(current);
+                        // Keep the persistence context from growing with the export
+                        if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                    current = new OrderDTO(order.getOrderId(), order.getUser().getUserId(), order.getOrderDate(),
+                        order.getTotalAmount(), order.getStatus().toString(), order.getDeliveryAddress(),
+                        order.getDeliveryDate(), new ArrayList<>());
+                }
+                if (item != null) {
+                    current.getOrderItems().add(OrderItemDTO.fromEntity(item));
+                }
+            }
+            if (current != null) {
+                sink.accept(current);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
     public OrderDTO updateOrderStatus(Integer orderId, Order.OrderStatus status) {
-        Optional<Order> order = orderRepository.findById(orderId);
+        Optional<Order> order = orderRepository.lockById(orderId);
         if (order.isPresent()) {
             Order existingOrder = order.get();
+            Order.OrderStatus previousStatus = existingOrder.getStatus();
+            if (status == Order.OrderStatus.CANCELLED && previousStatus != Order.OrderStatus.CANCELLED) {
+                stockManagementService.releaseStock(quantitiesByProduct(List.of(orderId)));
+            } else if (previousStatus == Order.OrderStatus.CANCELLED && status != Order.OrderStatus.CANCELLED) {
+                // Reopening a cancelled order has to take its stock again
+                stockManagementService.reserveStock(quantitiesByProduct(List.of(orderId)));
+            }
             existingOrder.setStatus(status);
-            Order updatedOrder = orderRepository.save(existingOrder);
+            // Flushed so the rollup deltas see the new status
+            Order updatedOrder = orderRepository.saveAndFlush(existingOrder);
+            customerOrderHistoryService.updateStatus(orderId, status);
+            salesRollupService.recordTransition(List.of(orderId), previousStatus, status);
             return OrderDTO.fromEntity(updatedOrder);
         }
         return null;
     }
 
+    public BulkStatusUpdateResult updateOrderStatuses(List<Integer> orderIds, Order.OrderStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return STATUS_TRANSITIONS.apply(orderIds, status,
+            ids -> orderRepository.findStatuses(ids).stream()
+                .collect(Collectors.toMap(r -> (Integer) r[0], r -> (Order.OrderStatus) r[1])),
+            (ids, from, to) -> {
+                // Only the rows locked in the source status are moved and counted in the rollups;
+                // anything a concurrent writer changed first is left to come back as a conflict
+                List<Integer> locked = orderRepository.lockIdsWithStatus(ids, from.name());
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                int updated = orderRepository.updateStatuses(locked, from, to, now);
+                if (to == Order.OrderStatus.CANCELLED) {
+                    stockManagementService.releaseStock(quantitiesByProduct(locked));
+                }
+                customerOrderHistoryService.syncStatuses(locked);
+                salesRollupService.recordTransition(locked, from, to);
+                return updated;
+            });
+    }
+
     public boolean deleteOrder(Integer orderId) {
-        if (orderRepository.existsById(orderId)) {
-            orderRepository.deleteById(orderId);
+        Optional<Order> order = orderRepository.lockById(orderId);
+        if (order.isPresent()) {
+            // Taken out of the rollups and its stock handed back while its rows still exist. Only orders
+            // that could still be cancelled return stock; shipped goods have left the warehouse.
+            Order.OrderStatus status = order.get().getStatus();
+            if (status == Order.OrderStatus.PENDING || status == Order.OrderStatus.CONFIRMED) {
+                stockManagementService.releaseStock(quantitiesByProduct(List.of(orderId)));
+            }
+            salesRollupService.recordTransition(List.of(orderId), status, null);
+            orderRepository.delete(order.get());
+            customerOrderHistoryService.delete(orderId);
             return true;
         }
         return false;
     }
+
+    private Map<Integer, Integer> quantitiesByProduct(List<Integer> orderIds) {
+        return orderItemRepository.sumQuantitiesByProduct(orderIds).stream()
+            .collect(Collectors.toMap(r -> (Integer) r[0], r -> ((Number) r[1]).intValue()));
+    }
 }
@@ -0,0 +1,131 @@
+package com.grocery.service;
+
+import com.grocery.dto.PriceQuoteDTO;
+import com.grocery.dto.PriceQuoteRequest;
+import com.grocery.dto.ProductDTO;
+import com.grocery.dto.PromotionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class PricingService {
+    private static final int MAX_CACHED_QUOTES = 1000;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private PromotionIndex promotionIndex;
+
+    // Keyed by the catalog and promotion versions plus the canonical cart, so any price or promotion
+    // change misses the cache instead of needing an eviction
+    private final Map<String, PriceQuoteDTO> quotes = Collections.synchronizedMap(
+        new LinkedHashMap<String, PriceQuoteDTO>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PriceQuoteDTO> eldest) {
+                return size() > MAX_CACHED_QUOTES;
+            }
+        });
+
+    public PriceQuoteDTO quote(PriceQuoteRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("A quote needs at least one item");
+        }
+        // Same product on several lines is priced once, in product id order
+        Map<Integer, Integer> cart = new TreeMap<>();
+        for (PriceQuoteRequest.Item item : request.getItems()) {
+            if (item == null || item.getProductId() == null) {
+                throw new IllegalArgumentException("Product ID is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + item.getProductId());
+            }
+            cart.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        ProductCatalogCache.Snapshot catalog = productCatalogCache.current();
+        PromotionIndex.Snapshot promotions = promotionIndex.current();
+        StringBuilder key = new StringBuilder().append(catalog.getVersion()).append('/').append(promotions.getVersion());
+        cart.forEach((productId, quantity) -> key.append('|').append(productId).append('x').append(quantity));
+        String cartKey = key.toString();
+        PriceQuoteDTO cached = quotes.get(cartKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<PriceQuoteDTO.Line> lines = new ArrayList<>(cart.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal discountTotal = BigDecimal.ZERO;
+        for (Map.Entry<Integer, Integer> entry : cart.entrySet()) {
+            ProductDTO product = catalog.getProduct(entry.getKey());
+            if (product == null) {
+                throw new IllegalArgumentException("Product not found with ID: " + entry.getKey());
+            }
+            PriceQuoteDTO.Line line = priceLine(product, entry.getValue(), promotions);
+            lines.add(line);
+            subtotal = subtotal.add(line.getSubtotal());
+            discountTotal = discountTotal.add(line.getDiscount());
+        }
+        PriceQuoteDTO quote = new PriceQuoteDTO(lines, subtotal, discountTotal, subtotal.subtract(discountTotal));
+        quotes.put(cartKey, quote);
+        return quote;
+    }
+
+    // Prices one line at checkout. The caller passes the product as loaded in its own transaction, so the
+    // order is charged the current price even before the catalog cache has caught up.
+    public PriceQuoteDTO.Line priceLine(ProductDTO product, int quantity) {
+        return priceLine(product, quantity, promotionIndex.current());
+    }
+
+    // Prices one line under a given promotion instead of the best applicable one, e.g. a flash sale's
+    public PriceQuoteDTO.Line priceLine(ProductDTO product, int quantity, PromotionDTO promotion) {
+        BigDecimal unitPrice = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+        BigDecimal lineSubtotal = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal discount = discount(promotion.getDiscountPercentage(), promotion.getDiscountAmount(), lineSubtotal, quantity);
+        return new PriceQuoteDTO.Line(product.getProductId(), product.getProductName(), quantity, unitPrice,
+            lineSubtotal, discount, lineSubtotal.subtract(discount), promotion.getPromotionId(), promotion.getPromotionName());
+    }
+
+    private PriceQuoteDTO.Line priceLine(ProductDTO product, int quantity, PromotionIndex.Snapshot promotions) {
+        BigDecimal unitPrice = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+        BigDecimal lineSubtotal = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+        PromotionIndex.CompiledPromotion best = null;
+        BigDecimal bestDiscount = BigDecimal.ZERO.setScale(2);
+        // Promotions do not stack; the line gets the largest single discount
+        for (PromotionIndex.CompiledPromotion promotion : promotions.getApplicable(product.getProductId(), product.getCategory())) {
+            BigDecimal discount = discount(promotion, lineSubtotal, quantity);
+            if (discount.compareTo(bestDiscount) > 0) {
+                best = promotion;
+                bestDiscount = discount;
+            }
+        }
+        return new PriceQuoteDTO.Line(product.getProductId(), product.getProductName(), quantity, unitPrice,
+            lineSubtotal, bestDiscount, lineSubtotal.subtract(bestDiscount),
+            best != null ? best.getPromotionId() : null, best != null ? best.getPromotionName() : null);
+    }
+
+    // discountPercentage is off the line, discountAmount is off each unit; never more than the line itself
+    static BigDecimal discount(PromotionIndex.CompiledPromotion promotion, BigDecimal lineSubtotal, int quantity) {
+        return discount(promotion.getDiscountPercentage(), promotion.getDiscountAmount(), lineSubtotal, quantity);
+    }
+
+    static BigDecimal discount(BigDecimal percentage, BigDecimal amount, BigDecimal lineSubtotal, int quantity) {
+        BigDecimal discount = BigDecimal.ZERO;
+        if (percentage != null) {
+            discount = discount.add(lineSubtotal.multiply(percentage).divide(HUNDRED));
+        }
+        if (amount != null) {
+            discount = discount.add(amount.multiply(BigDecimal.valueOf(quantity)));
+        }
+        return discount.max(BigDecimal.ZERO).min(lineSubtotal).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,127 @@
+package com.grocery.service;
+
+import com.grocery.dto.ProductDTO;
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.event.ProductChangedEvent;
+import com.grocery.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class ProductCatalogCache {
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final ProductChangeOrdering ordering = new ProductChangeOrdering();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    public synchronized Snapshot reload() {
+        Map<Integer, ProductDTO> products = new TreeMap<>();
+        productRepository.findAll().forEach(p -> products.put(p.getProductId(), ProductDTO.fromEntity(p)));
+        Snapshot previous = snapshot.get();
+        // Seed from the clock so ETags from a previous run are never mistaken for current ones
+        long version = previous != null ? previous.version + 1 : System.currentTimeMillis();
+        Snapshot reloaded = new Snapshot(version, products);
+        snapshot.set(reloaded);
+        ordering.clear();
+        return reloaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Snapshot previous = snapshot.get();
+        if (previous == null) {
+            return;
+        }
+        ProductDTO cached = previous.byId.get(event.getProductId());
+        if (!ordering.accept(event, cached != null ? cached.getUpdatedAt() : null)) {
+            return;
+        }
+        Map<Integer, ProductDTO> products = new TreeMap<>(previous.byId);
+        if (event.isDeleted()) {
+            products.remove(event.getProductId());
+        } else {
+            // Copied so the caller that published the event can't change the cached entry afterwards
+            products.put(event.getProductId(), ProductDTO.copyOf(event.getProduct()));
+        }
+        snapshot.set(new Snapshot(previous.version + 1, products));
+    }
+
+    // Entries are handed out as copies, so callers can't change what other readers see
+    public static class Snapshot {
+        private final long version;
+        private final Map<Integer, ProductDTO> byId;
+        private final List<ProductDTO> all;
+        private final Map<String, List<ProductDTO>> byCategory;
+
+        private Snapshot(long version, Map<Integer, ProductDTO> products) {
+            this.version = version;
+            this.byId = Collections.unmodifiableMap(new LinkedHashMap<>(products));
+            this.all = List.copyOf(products.values());
+
+            Map<String, List<ProductDTO>> categories = new LinkedHashMap<>();
+            for (ProductDTO product : all) {
+                categories.computeIfAbsent(categoryKey(product.getCategory()), k -> new ArrayList<>()).add(product);
+            }
+            categories.replaceAll((category, list) -> List.copyOf(list));
+            this.byCategory = Collections.unmodifiableMap(categories);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getETag() {
+            return "\"catalog-" + version + "\"";
+        }
+
+        public ProductDTO getProduct(Integer productId) {
+            ProductDTO product = byId.get(productId);
+            return product != null ? ProductDTO.copyOf(product) : null;
+        }
+
+        public List<ProductDTO> getAll() {
+            return copies(all);
+        }
+
+        public List<ProductDTO> getByCategory(String category) {
+            return copies(byCategory.getOrDefault(categoryKey(category), List.of()));
+        }
+
+        private static List<ProductDTO> copies(List<ProductDTO> products) {
+            List<ProductDTO> copies = new ArrayList<>(products.size());
+            products.forEach(p -> copies.add(ProductDTO.copyOf(p)));
+            return copies;
+        }
+
+        // MySQL compares categories case-insensitively, so the cache does too
+        private static String categoryKey(String category) {
+            return category != null ? category.toLowerCase() : "";
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.grocery.service;
+
+import com.grocery.event.ProductChangedEvent;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Events arrive in the order listeners run, not the order transactions committed, so the product views
+// only apply a change that is at least as new as the one they hold. Deletes leave a tombstone so a late
+// update can't bring the product back. Not thread-safe; each view calls it under its own lock.
+class ProductChangeOrdering {
+    private final Map<Integer, LocalDateTime> deletedAt = new HashMap<>();
+
+    // heldUpdatedAt is the updatedAt of the view's current entry, or null when it holds none
+    boolean accept(ProductChangedEvent event, LocalDateTime heldUpdatedAt) {
+        if (event.isDeleted()) {
+            deletedAt.put(event.getProductId(), LocalDateTime.now());
+            return true;
+        }
+        LocalDateTime than = heldUpdatedAt != null ? heldUpdatedAt : deletedAt.get(event.getProductId());
+        LocalDateTime updatedAt = event.getProduct().getUpdatedAt();
+        return than == null || updatedAt == null || !updatedAt.isBefore(than);
+    }
+
+    // A reload reads every product afresh, so older tombstones no longer matter
+    void clear() {
+        deletedAt.clear();
+    }
+}
@@ -0,0 +1,229 @@
+package com.grocery.service;
+
+import com.grocery.dto.ProductDTO;
+import com.grocery.dto.ProductFacetsDTO;
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.event.ProductChangedEvent;
+import com.grocery.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps product counts per (category, price range) cell so facet requests are answered
+// from counters instead of scanning the products table.
+@Service
+public class ProductFacetIndex {
+    // Lower bounds of each price range; the last range is open-ended
+    private static final BigDecimal[] PRICE_BOUNDS = {
+        BigDecimal.ZERO, new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("5"),
+        new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("50")
+    };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Never changed once published; a change builds a copy and swaps it in, so a request reads one whole version
+    private volatile Counts counts;
+    private final ProductChangeOrdering ordering = new ProductChangeOrdering();
+    // Bumped after every change to the counts; seeded from the clock so ETags from a previous run never match
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Counts rebuilt = new Counts();
+        productRepository.findAll().forEach(p -> add(rebuilt, ProductDTO.fromEntity(p)));
+        counts = rebuilt;
+        ordering.clear();
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (counts == null) {
+            return;
+        }
+        Membership held = counts.memberships.get(event.getProductId());
+        if (!ordering.accept(event, held != null ? held.updatedAt : null)) {
+            return;
+        }
+        Counts updated = new Counts(counts);
+        remove(updated, event.getProductId());
+        if (!event.isDeleted()) {
+            add(updated, event.getProduct());
+        }
+        counts = updated;
+        version.incrementAndGet();
+    }
+
+    // Read before the counts, so a response can only be newer than its ETag, never older
+    public String getETag() {
+        return "\"facets-" + version.get() + "\"";
+    }
+
+    public ProductFacetsDTO getFacets(List<String> categories, List<String> priceRanges) {
+        Counts current = counts;
+        if (current == null) {
+            rebuild();
+            current = counts;
+        }
+
+        boolean[] selectedRanges = selectRanges(priceRanges);
+        List<String> selectedCategories = categories == null ? List.of()
+            : categories.stream().filter(c -> c != null && !c.isBlank()).map(this::categoryKey).toList();
+
+        // Each facet is filtered by the other facet's selection, the total by both
+        long total = 0;
+        long[] rangeCounts = new long[PRICE_BOUNDS.length];
+        List<ProductFacetsDTO.CategoryFacet> categoryFacets = new ArrayList<>();
+        for (Map.Entry<String, CategoryCounts> entry : current.byCategory.entrySet()) {
+            CategoryCounts cell = entry.getValue();
+            boolean categorySelected = selectedCategories.isEmpty() || selectedCategories.contains(entry.getKey());
+            long categoryCount = 0;
+            for (int bucket = 0; bucket < PRICE_BOUNDS.length; bucket++) {
+                int count = cell.buckets[bucket];
+                if (selectedRanges == null || selectedRanges[bucket]) {
+                    categoryCount += count;
+                }
+                if (categorySelected) {
+                    rangeCounts[bucket] += count;
+                }
+            }
+            if (categoryCount > 0) {
+                categoryFacets.add(new ProductFacetsDTO.CategoryFacet(cell.name, categoryCount));
+            }
+            if (categorySelected) {
+                total += categoryCount;
+            }
+        }
+        categoryFacets.sort(Comparator.comparingLong(ProductFacetsDTO.CategoryFacet::getCount).reversed()
+            .thenComparing(ProductFacetsDTO.CategoryFacet::getCategory));
+
+        List<ProductFacetsDTO.PriceRangeFacet> rangeFacets = new ArrayList<>();
+        for (int bucket = 0; bucket < PRICE_BOUNDS.length; bucket++) {
+            BigDecimal max = bucket + 1 < PRICE_BOUNDS.length ? PRICE_BOUNDS[bucket + 1] : null;
+            rangeFacets.add(new ProductFacetsDTO.PriceRangeFacet(rangeLabel(bucket), PRICE_BOUNDS[bucket], max, rangeCounts[bucket]));
+        }
+
+        return new ProductFacetsDTO(total, categoryFacets, rangeFacets);
+    }
+
+    private boolean[] selectRanges(List<String> priceRanges) {
+        if (priceRanges == null || priceRanges.isEmpty()) {
+            return null;
+        }
+        boolean[] selected = new boolean[PRICE_BOUNDS.length];
+        for (String range : priceRanges) {
+            int bucket = -1;
+            for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+                if (rangeLabel(i).equals(range)) {
+                    bucket = i;
+                }
+            }
+            if (bucket < 0) {
+                throw new IllegalArgumentException("Unknown price range: " + range);
+            }
+            selected[bucket] = true;
+        }
+        return selected;
+    }
+
+    // Products without a category or price aren't counted, but their membership still records the
+    // version that was applied
+    private void add(Counts target, ProductDTO product) {
+        if (product.getCategory() == null || product.getPrice() == null) {
+            target.memberships.put(product.getProductId(), new Membership(null, -1, product.getUpdatedAt()));
+            return;
+        }
+        String key = categoryKey(product.getCategory());
+        int bucket = bucketOf(product.getPrice());
+        target.byCategory.computeIfAbsent(key, k -> new CategoryCounts(product.getCategory())).buckets[bucket]++;
+        target.memberships.put(product.getProductId(), new Membership(key, bucket, product.getUpdatedAt()));
+    }
+
+    private void remove(Counts target, Integer productId) {
+        Membership membership = target.memberships.remove(productId);
+        if (membership != null && membership.categoryKey != null) {
+            target.byCategory.get(membership.categoryKey).buckets[membership.bucket]--;
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        int index = Arrays.binarySearch(PRICE_BOUNDS, price, BigDecimal::compareTo);
+        return index >= 0 ? index : Math.max(-index - 2, 0);
+    }
+
+    private String rangeLabel(int bucket) {
+        if (bucket + 1 < PRICE_BOUNDS.length) {
+            return PRICE_BOUNDS[bucket].toPlainString() + "-" + PRICE_BOUNDS[bucket + 1].toPlainString();
+        }
+        return PRICE_BOUNDS[bucket].toPlainString() + "+";
+    }
+
+    private String categoryKey(String category) {
+        return category.trim().toLowerCase();
+    }
+
+    private static class Counts {
+        private final Map<String, CategoryCounts> byCategory;
+        private final Map<Integer, Membership> memberships;
+
+        private Counts() {
+            this.byCategory = new HashMap<>();
+            this.memberships = new HashMap<>();
+        }
+
+        // There are only a handful of categories, so every cell is copied rather than tracking which changed
+        private Counts(Counts source) {
+            this.byCategory = new HashMap<>();
+            source.byCategory.forEach((key, cell) -> byCategory.put(key, new CategoryCounts(cell)));
+            this.memberships = new HashMap<>(source.memberships);
+        }
+    }
+
+    private static class CategoryCounts {
+        private final String name;
+        private final int[] buckets;
+
+        private CategoryCounts(String name) {
+            this.name = name;
+            this.buckets = new int[PRICE_BOUNDS.length];
+        }
+
+        private CategoryCounts(CategoryCounts source) {
+            this.name = source.name;
+            this.buckets = source.buckets.clone();
+        }
+    }
+
+    private static class Membership {
+        private final String categoryKey;
+        private final int bucket;
+        private final LocalDateTime updatedAt;
+
+        private Membership(String categoryKey, int bucket, LocalDateTime updatedAt) {
+            this.categoryKey = categoryKey;
+            this.bucket = bucket;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.grocery.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+// Stores product images by the SHA-256 of their bytes and pre-renders JPEG variants, so a
+// variant URL never changes content and can be cached forever.
+@Service
+public class ProductImageService {
+    public static final Map<String, Integer> VARIANTS = Map.of(
+        "thumb", 150,
+        "list", 400,
+        "detail", 1024
+    );
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final long RENDER_WAIT_SECONDS = 10;
+
+    @Value("${grocery.images.dir:data/images}")
+    private String imagesDir;
+
+    // Decoded images take 4 bytes a pixel, so a small compressed file can still be huge once read
+    @Value("${grocery.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Autowired
+    @Qualifier("imageExecutor")
+    private ThreadPoolTaskExecutor imageExecutor;
+
+    // One render per image at a time; requests for an image that is already rendering wait on the same future
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> rendering = new ConcurrentHashMap<>();
+
+    // Only the header is read here; the pixels are decoded on the image executor, once per image
+    public String store(byte[] content) {
+        String format;
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                format = reader.getFormatName().toLowerCase();
+                reader.setInput(input);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is too large: " + width + "x" + height
+                        + " pixels, at most " + maxPixels + " are allowed");
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read image: " + e.getMessage());
+        }
+
+        String hash = sha256(content);
+        Path original = originalPath(hash, format);
+        try {
+            // Identical uploads map to the same file, so an existing original is reused as-is
+            if (!Files.exists(original)) {
+                writeAtomically(original, content);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image: " + e.getMessage());
+        }
+
+        try {
+            render(hash, original);
+        } catch (RejectedExecutionException e) {
+            // The queue is full; getVariant queues the render again on the first request instead
+        }
+        return hash;
+    }
+
+    public Map<String, String> variantUrls(String hash) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String variant : new String[] {"thumb", "list", "detail"}) {
+            urls.put(variant, "/images/" + hash + "/" + variant + ".jpg");
+        }
+        return urls;
+    }
+
+    // Returns the variant file, waiting for the image executor to render it if it hasn't yet. Throws
+    // RejectedExecutionException when the executor is saturated, so the caller can ask the client to retry.
+    public Path getVariant(String hash, String variant) {
+        if (!HASH_PATTERN.matcher(hash).matches() || !VARIANTS.containsKey(variant)) {
+            return null;
+        }
+        Path path = variantPath(hash, variant);
+        if (Files.exists(path)) {
+            return path;
+        }
+
+        Path original = findOriginal(hash);
+        if (original == null) {
+            return null;
+        }
+        try {
+            render(hash, original).get(RENDER_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new RejectedExecutionException("Image variant is still rendering");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for image variant");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to render image variant: " + e.getCause().getMessage());
+        }
+        // A file that couldn't be decoded leaves no variant behind
+        return Files.exists(path) ? path : null;
+    }
+
+    private CompletableFuture<Void> render(String hash, Path original) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> inFlight = rendering.putIfAbsent(hash, created);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            imageExecutor.execute(() -> {
+                try {
+                    renderVariants(hash, original);
+                    created.complete(null);
+                } catch (RuntimeException e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    rendering.remove(hash, created);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rendering.remove(hash, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        return created;
+    }
+
+    private void renderVariants(String hash, Path original) {
+        if (VARIANTS.keySet().stream().allMatch(variant -> Files.exists(variantPath(hash, variant)))) {
+            return;
+        }
+        BufferedImage image;
+        try {
+            image = ImageIO.read(original.toFile());
+        } catch (IOException e) {
+            System.err.println("Failed to decode image " + hash + ": " + e.getMessage());
+            return;
+        }
+        if (image == null) {
+            System.err.println("Failed to decode image " + hash);
+            return;
+        }
+        for (String variant : VARIANTS.keySet()) {
+            try {
+                if (!Files.exists(variantPath(hash, variant))) {
+                    renderVariant(hash, variant, image);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to render " + variant + " for image " + hash + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void renderVariant(String hash, String variant, BufferedImage image) throws IOException {
+        int maxEdge = VARIANTS.get(variant);
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        Path target = variantPath(hash, variant);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), variant, ".tmp");
+        try {
+            ImageIO.write(resized, "jpg", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "upload", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path findOriginal(String hash) {
+        Path dir = Paths.get(imagesDir, "originals", hash.substring(0, 2));
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        try (var files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(hash + ".")).findFirst().orElse(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path originalPath(String hash, String format) {
+        return Paths.get(imagesDir, "originals", hash.substring(0, 2), hash + "." + format);
+    }
+
+    private Path variantPath(String hash, String variant) {
+        return Paths.get(imagesDir, "variants", hash.substring(0, 2), hash, variant + ".jpg");
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
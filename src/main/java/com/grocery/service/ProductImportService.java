@@ -0,0 +1,299 @@
+package com.grocery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.dto.ProductImportReport;
+import com.grocery.dto.ProductImportRow;
+import com.grocery.event.CatalogReloadEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Streams a CSV or NDJSON catalog feed into products and stock_management using chunked,
+// JDBC-batched upserts keyed by SKU (products) and product/warehouse (stock).
+@Service
+public class ProductImportService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TRACKED_IMPORTS = 20;
+    private static final String DEFAULT_WAREHOUSE = "Main Warehouse";
+    private static final int DEFAULT_REORDER_LEVEL = 10;
+
+    private static final String UPSERT_PRODUCT_SQL =
+        "INSERT INTO products (sku, product_name, category, price, stock_quantity, description, image_url, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), category = VALUES(category), price = VALUES(price), " +
+        "stock_quantity = VALUES(stock_quantity), description = VALUES(description), image_url = VALUES(image_url), " +
+        "updated_at = VALUES(updated_at)";
+
+    private static final String UPSERT_STOCK_SQL =
+        "INSERT INTO stock_management (product_id, warehouse_location, quantity_available, reorder_level, last_restocked, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE quantity_available = VALUES(quantity_available), reorder_level = VALUES(reorder_level), " +
+        "last_restocked = VALUES(last_restocked), updated_at = VALUES(updated_at)";
+
+    private static final String FIND_PRODUCT_IDS_SQL = "SELECT product_id, sku FROM products WHERE sku IN (:skus)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, ProductImportReport> imports = Collections.synchronizedMap(
+        new LinkedHashMap<String, ProductImportReport>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProductImportReport> eldest) {
+                return size() > MAX_TRACKED_IMPORTS;
+            }
+        });
+
+    public ProductImportReport getImport(String jobId) {
+        return imports.get(jobId);
+    }
+
+    public ProductImportReport importProducts(InputStream input, boolean csv, String jobId) {
+        ProductImportReport report = new ProductImportReport(jobId != null ? jobId : UUID.randomUUID().toString());
+        imports.put(report.getJobId(), report);
+        long started = System.nanoTime();
+
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    ProductImportRow row = csv ? parseCsvRow(line, header) : objectMapper.readValue(line, ProductImportRow.class);
+                    chunk.add(new ParsedRow(lineNumber, validate(row)));
+                } catch (Exception e) {
+                    recordError(report, lineNumber, null, e.getMessage());
+                }
+
+                if (chunk.size() >= CHUNK_SIZE) {
+                    writeChunk(report, chunk);
+                    chunk.clear();
+                    updateRate(report, started);
+                }
+            }
+            writeChunk(report, chunk);
+            report.setStatus("COMPLETED");
+        } catch (IOException | RuntimeException e) {
+            report.setStatus("FAILED");
+            recordError(report, 0, null, "Import aborted: " + e.getMessage());
+        } finally {
+            updateRate(report, started);
+            if (report.getRowsImported() > 0) {
+                eventPublisher.publishEvent(new CatalogReloadEvent("product import " + report.getJobId()));
+            }
+        }
+        return report;
+    }
+
+    private void writeChunk(ProductImportReport report, List<ParsedRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(chunk));
+            report.setRowsImported(report.getRowsImported() + chunk.size());
+        } catch (RuntimeException chunkError) {
+            // Retry row by row so one bad row doesn't reject the rest of its chunk
+            for (ParsedRow row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> upsert(List.of(row)));
+                    report.setRowsImported(report.getRowsImported() + 1);
+                } catch (RuntimeException rowError) {
+                    recordError(report, row.line, row.data.getSku(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private void upsert(List<ParsedRow> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, rows.stream()
+            .map(r -> new Object[] {
+                r.data.getSku(), r.data.getProductName(), r.data.getCategory(), r.data.getPrice(),
+                r.data.getStockQuantity(), r.data.getDescription(), r.data.getImageUrl(), now, now
+            })
+            .collect(Collectors.toList()));
+
+        Set<String> skus = rows.stream().map(r -> r.data.getSku()).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Integer> productIds = new HashMap<>();
+        namedParameterJdbcTemplate.query(FIND_PRODUCT_IDS_SQL, Map.of("skus", skus),
+            rs -> {
+                productIds.put(rs.getString("sku"), rs.getInt("product_id"));
+            });
+
+        jdbcTemplate.batchUpdate(UPSERT_STOCK_SQL, rows.stream()
+            .map(r -> new Object[] {
+                productIds.get(r.data.getSku()), r.data.getWarehouseLocation(), r.data.getQuantityAvailable(),
+                r.data.getReorderLevel(), now, now, now
+            })
+            .collect(Collectors.toList()));
+    }
+
+    private ProductImportRow validate(ProductImportRow row) {
+        if (row.getSku() == null || row.getSku().isBlank()) {
+            throw new IllegalArgumentException("sku is required");
+        }
+        if (row.getProductName() == null || row.getProductName().isBlank()) {
+            throw new IllegalArgumentException("productName is required");
+        }
+        if (row.getCategory() == null || row.getCategory().isBlank()) {
+            throw new IllegalArgumentException("category is required");
+        }
+        if (row.getPrice() == null || row.getPrice().signum() < 0) {
+            throw new IllegalArgumentException("price must be zero or more");
+        }
+        row.setSku(row.getSku().trim());
+        if (row.getStockQuantity() == null) {
+            row.setStockQuantity(row.getQuantityAvailable() != null ? row.getQuantityAvailable() : 0);
+        }
+        if (row.getQuantityAvailable() == null) {
+            row.setQuantityAvailable(row.getStockQuantity());
+        }
+        if (row.getStockQuantity() < 0 || row.getQuantityAvailable() < 0) {
+            throw new IllegalArgumentException("quantities must be zero or more");
+        }
+        if (row.getWarehouseLocation() == null || row.getWarehouseLocation().isBlank()) {
+            row.setWarehouseLocation(DEFAULT_WAREHOUSE);
+        }
+        if (row.getReorderLevel() == null) {
+            row.setReorderLevel(DEFAULT_REORDER_LEVEL);
+        }
+        return row;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = parseCsvLine(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(), i);
+        }
+        return header;
+    }
+
+    private ProductImportRow parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> values = parseCsvLine(line);
+        ProductImportRow row = new ProductImportRow();
+        row.setSku(column(values, header, "sku"));
+        row.setProductName(column(values, header, "productname"));
+        row.setCategory(column(values, header, "category"));
+        String price = column(values, header, "price");
+        row.setPrice(price != null ? new BigDecimal(price) : null);
+        row.setStockQuantity(intColumn(values, header, "stockquantity"));
+        row.setDescription(column(values, header, "description"));
+        row.setImageUrl(column(values, header, "imageurl"));
+        row.setWarehouseLocation(column(values, header, "warehouselocation"));
+        row.setQuantityAvailable(intColumn(values, header, "quantityavailable"));
+        row.setReorderLevel(intColumn(values, header, "reorderlevel"));
+        return row;
+    }
+
+    private String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer intColumn(List<String> values, Map<String, Integer> header, String name) {
+        String value = column(values, header, name);
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    // Handles quoted fields and doubled quotes; fields may not span lines
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private void recordError(ProductImportReport report, long line, String sku, String message) {
+        report.setRowsFailed(report.getRowsFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ProductImportReport.RowError(line, sku, message));
+        }
+    }
+
+    private void updateRate(ProductImportReport report, long started) {
+        long elapsedMillis = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+        report.setElapsedMillis(elapsedMillis);
+        report.setRowsPerSecond(report.getRowsImported() * 1000 / elapsedMillis);
+    }
+
+    private static class ParsedRow {
+        private final long line;
+        private final ProductImportRow data;
+
+        private ParsedRow(long line, ProductImportRow data) {
+            this.line = line;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.grocery.service;
+
+import com.grocery.dto.ProductDTO;
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.event.ProductChangedEvent;
+import com.grocery.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductSearchIndex {
+    private static final int MAX_PREFIX_LENGTH = 15;
+    private static final int GRAM_SIZE = 3;
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Never changed once published; updates build a copy and swap it in, so a search sees one whole version
+    private volatile Index index;
+    private final ProductChangeOrdering ordering = new ProductChangeOrdering();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Update rebuilt = new Update(new Index());
+        productRepository.findAll().forEach(p -> add(rebuilt, ProductDTO.fromEntity(p)));
+        index = rebuilt.index;
+        ordering.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (index == null) {
+            return;
+        }
+        IndexedProduct held = index.documents.get(event.getProductId());
+        if (!ordering.accept(event, held != null ? held.product.getUpdatedAt() : null)) {
+            return;
+        }
+        Update update = new Update(new Index(index));
+        remove(update, event.getProductId());
+        if (!event.isDeleted()) {
+            add(update, event.getProduct());
+        }
+        index = update.index;
+    }
+
+    public List<ProductDTO> search(String keyword) {
+        Index current = index;
+        if (current == null) {
+            rebuild();
+            current = index;
+        }
+
+        List<String> tokens = tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        // Every query token has to match somewhere in the product
+        Map<Integer, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Integer> matches = match(current, token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<IndexedProduct, Integer>> ranked = new ArrayList<>(scores.size());
+        for (Map.Entry<Integer, Integer> score : scores.entrySet()) {
+            IndexedProduct doc = current.documents.get(score.getKey());
+            if (doc != null) {
+                ranked.add(Map.entry(doc, score.getValue()));
+            }
+        }
+        ranked.sort(Map.Entry.<IndexedProduct, Integer>comparingByValue().reversed()
+            .thenComparing(e -> e.getKey().name));
+        return ranked.stream()
+            .map(e -> ProductDTO.copyOf(e.getKey().product))
+            .collect(Collectors.toList());
+    }
+
+    private Map<Integer, Integer> match(Index current, String token) {
+        Map<Integer, Integer> matches = new HashMap<>();
+
+        String prefix = token.length() > MAX_PREFIX_LENGTH ? token.substring(0, MAX_PREFIX_LENGTH) : token;
+        Map<Integer, Integer> postings = current.prefixes.get(prefix);
+        if (postings != null) {
+            postings.forEach((id, weight) -> {
+                IndexedProduct doc = current.documents.get(id);
+                if (doc == null || (prefix.length() < token.length() && !doc.hasTokenStartingWith(token))) {
+                    return;
+                }
+                int score = weight * 2 + (doc.tokens.contains(token) ? weight : 0);
+                matches.put(id, score);
+            });
+        }
+
+        // Infix matches keep the old "containing" behaviour, e.g. "nana" still finds "Bananas"
+        if (token.length() >= GRAM_SIZE) {
+            for (Integer id : candidatesByGrams(current, token)) {
+                if (matches.containsKey(id)) {
+                    continue;
+                }
+                IndexedProduct doc = current.documents.get(id);
+                int weight = doc != null ? doc.infixWeight(token) : 0;
+                if (weight > 0) {
+                    matches.put(id, weight);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private Set<Integer> candidatesByGrams(Index current, String token) {
+        List<Set<Integer>> postings = new ArrayList<>();
+        for (String gram : grams(token)) {
+            Set<Integer> ids = current.grams.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Integer> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    private void add(Update update, ProductDTO product) {
+        IndexedProduct doc = new IndexedProduct(ProductDTO.copyOf(product));
+        indexField(update, doc, doc.name, NAME_WEIGHT);
+        indexField(update, doc, doc.category, CATEGORY_WEIGHT);
+        indexField(update, doc, doc.description, DESCRIPTION_WEIGHT);
+        update.index.documents.put(product.getProductId(), doc);
+    }
+
+    private void indexField(Update update, IndexedProduct doc, String text, int weight) {
+        Integer id = doc.product.getProductId();
+        for (String token : tokenize(text)) {
+            doc.tokens.add(token);
+            for (int i = 1; i <= Math.min(token.length(), MAX_PREFIX_LENGTH); i++) {
+                String prefix = token.substring(0, i);
+                update.prefixPostings(prefix).merge(id, weight, Math::max);
+                doc.prefixes.add(prefix);
+            }
+            for (String gram : grams(token)) {
+                update.gramPostings(gram).add(id);
+                doc.grams.add(gram);
+            }
+        }
+    }
+
+    private void remove(Update update, Integer productId) {
+        IndexedProduct doc = update.index.documents.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (String prefix : doc.prefixes) {
+            if (update.index.prefixes.containsKey(prefix)) {
+                Map<Integer, Integer> postings = update.prefixPostings(prefix);
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    update.index.prefixes.remove(prefix);
+                }
+            }
+        }
+        for (String gram : doc.grams) {
+            if (update.index.grams.containsKey(gram)) {
+                Set<Integer> postings = update.gramPostings(gram);
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    update.index.grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> grams(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final Map<Integer, IndexedProduct> documents;
+        private final Map<String, Map<Integer, Integer>> prefixes;
+        private final Map<String, Set<Integer>> grams;
+
+        private Index() {
+            this.documents = new HashMap<>();
+            this.prefixes = new HashMap<>();
+            this.grams = new HashMap<>();
+        }
+
+        // Shares the posting lists with the source; Update copies the ones it changes
+        private Index(Index source) {
+            this.documents = new HashMap<>(source.documents);
+            this.prefixes = new HashMap<>(source.prefixes);
+            this.grams = new HashMap<>(source.grams);
+        }
+    }
+
+    // An unpublished index being written. Posting lists still shared with the published index are
+    // copied the first time they are touched; lists created or copied here are changed in place.
+    private static class Update {
+        private final Index index;
+        private final Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Update(Index index) {
+            this.index = index;
+        }
+
+        private Map<Integer, Integer> prefixPostings(String prefix) {
+            Map<Integer, Integer> postings = index.prefixes.get(prefix);
+            if (postings == null || !owned.contains(postings)) {
+                postings = postings != null ? new HashMap<>(postings) : new HashMap<>();
+                owned.add(postings);
+                index.prefixes.put(prefix, postings);
+            }
+            return postings;
+        }
+
+        private Set<Integer> gramPostings(String gram) {
+            Set<Integer> postings = index.grams.get(gram);
+            if (postings == null || !owned.contains(postings)) {
+                postings = postings != null ? new HashSet<>(postings) : new HashSet<>();
+                owned.add(postings);
+                index.grams.put(gram, postings);
+            }
+            return postings;
+        }
+    }
+
+    private static class IndexedProduct {
+        private final ProductDTO product;
+        private final String name;
+        private final String category;
+        private final String description;
+        private final Set<String> tokens = new HashSet<>();
+        private final Set<String> prefixes = new HashSet<>();
+        private final Set<String> grams = new HashSet<>();
+
+        private IndexedProduct(ProductDTO product) {
+            this.product = product;
+            this.name = lower(product.getProductName());
+            this.category = lower(product.getCategory());
+            this.description = lower(product.getDescription());
+        }
+
+        private boolean hasTokenStartingWith(String token) {
+            return tokens.stream().anyMatch(t -> t.startsWith(token));
+        }
+
+        private int infixWeight(String token) {
+            if (name.contains(token)) {
+                return NAME_WEIGHT;
+            } else if (category.contains(token)) {
+                return CATEGORY_WEIGHT;
+            } else if (description.contains(token)) {
+                return DESCRIPTION_WEIGHT;
+            }
+            return 0;
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase() : "";
+        }
+    }
+}
@@ -1,47 +1,115 @@
 package com.grocery.service;
 
+import com.grocery.dto.BatchResult;
+import com.grocery.dto.CursorPage;
 import com.grocery.dto.ProductDTO;
+import com.grocery.dto.ProductFacetsDTO;
+import com.grocery.dto.ProductImageDTO;
+import com.grocery.event.ProductChangedEvent;
 import com.grocery.model.Product;
 import com.grocery.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ProductService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "productId", Integer.class,
+        "productName", String.class,
+        "category", String.class,
+        "price", BigDecimal.class,
+        "createdAt", LocalDateTime.class
+    );
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ProductDTO createProduct(Product product) {
         Product savedProduct = productRepository.save(product);
-        return ProductDTO.fromEntity(savedProduct);
+        ProductDTO createdProduct = ProductDTO.fromEntity(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(createdProduct.getProductId(), createdProduct));
+        return createdProduct;
     }
 
+    // Catalog reads are served from the cache snapshot and never start a transaction
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductDTO getProductById(Integer productId) {
-        Optional<Product> product = productRepository.findById(productId);
-        return product.map(ProductDTO::fromEntity).orElse(null);
+        return productCatalogCache.current().getProduct(productId);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BatchResult<ProductDTO> getProductsByIds(List<Integer> productIds) {
+        Set<Integer> requestedIds = BatchResult.requestedIds(productIds);
+        ProductCatalogCache.Snapshot snapshot = productCatalogCache.current();
+        Map<Integer, ProductDTO> found = new HashMap<>();
+        for (Integer productId : requestedIds) {
+            ProductDTO product = snapshot.getProduct(productId);
+            if (product != null) {
+                found.put(productId, product);
+            }
+        }
+        return BatchResult.of(requestedIds, found);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-            .map(ProductDTO::fromEntity)
-            .collect(Collectors.toList());
+        return productCatalogCache.current().getAll();
     }
 
+    public CursorPage<ProductDTO> getProductsPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "productId", SORTABLE_FIELDS);
+        return query.toPage(productRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), ProductDTO::fromEntity);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category).stream()
-            .map(ProductDTO::fromEntity)
-            .collect(Collectors.toList());
+        return productCatalogCache.current().getByCategory(category);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDTO> searchProducts(String keyword) {
-        return productRepository.findByProductNameContainingIgnoreCase(keyword).stream()
-            .map(ProductDTO::fromEntity)
-            .collect(Collectors.toList());
+        return productSearchIndex.search(keyword);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductFacetsDTO getFacets(List<String> categories, List<String> priceRanges) {
+        return productFacetIndex.getFacets(categories, priceRanges);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getCatalogETag() {
+        return productCatalogCache.current().getETag();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getFacetsETag() {
+        return productFacetIndex.getETag();
     }
 
     public ProductDTO updateProduct(Integer productId, Product productDetails) {
@@ -54,8 +122,31 @@ public class ProductService {
             existingProduct.setStockQuantity(productDetails.getStockQuantity());
             existingProduct.setDescription(productDetails.getDescription());
             existingProduct.setImageUrl(productDetails.getImageUrl());
-            Product updatedProduct = productRepository.save(existingProduct);
-            return ProductDTO.fromEntity(updatedProduct);
+            
+            // Only update the SKU if provided so older clients don't clear it
+            if (productDetails.getSku() != null) {
+                existingProduct.setSku(productDetails.getSku());
+            }
+            // Flushed so updatedAt is stamped before the DTO is built; the catalog cache orders changes by it
+            Product updatedProduct = productRepository.saveAndFlush(existingProduct);
+            ProductDTO updatedProductDTO = ProductDTO.fromEntity(updatedProduct);
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, updatedProductDTO));
+            return updatedProductDTO;
+        }
+        return null;
+    }
+
+    public ProductImageDTO updateProductImage(Integer productId, byte[] content) {
+        Optional<Product> product = productRepository.findById(productId);
+        if (product.isPresent()) {
+            String hash = productImageService.store(content);
+            Map<String, String> variantUrls = productImageService.variantUrls(hash);
+
+            Product existingProduct = product.get();
+            existingProduct.setImageUrl(variantUrls.get("detail"));
+            Product updatedProduct = productRepository.saveAndFlush(existingProduct);
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductDTO.fromEntity(updatedProduct)));
+            return new ProductImageDTO(productId, hash, variantUrls);
         }
         return null;
     }
@@ -63,6 +154,7 @@ public class ProductService {
     public boolean deleteProduct(Integer productId) {
         if (productRepository.existsById(productId)) {
             productRepository.deleteById(productId);
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, null));
             return true;
         }
         return false;
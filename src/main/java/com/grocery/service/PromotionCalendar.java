@@ -0,0 +1,298 @@
+package com.grocery.service;
+
+import com.grocery.dto.PromotionDTO;
+import com.grocery.event.PromotionChangedEvent;
+import com.grocery.repository.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Every promotion held in an interval tree over [startDate, endDate]: an AVL tree ordered by start date
+// where each node also knows the latest end date below it, so whole subtrees that end too early are skipped.
+// Status is worked out against the date of each read, so promotions change state at midnight on their own.
+@Service
+public class PromotionCalendar {
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, PromotionDTO> byId = new HashMap<>();
+    private final TreeMap<LocalDate, Map<Integer, PromotionDTO>> byEndDate = new TreeMap<>();
+    private Node root;
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            byEndDate.clear();
+            root = null;
+            promotionRepository.findAll().forEach(p -> add(PromotionDTO.fromEntity(p)));
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getPromotionId());
+            if (!event.isDeleted()) {
+                add(event.getPromotion());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public PromotionDTO getPromotion(Integer promotionId, LocalDate day) {
+        if (!loaded) {
+            reload();
+        }
+        lock.readLock().lock();
+        try {
+            PromotionDTO promotion = byId.get(promotionId);
+            return promotion != null ? withStatus(promotion, day) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Promotions switched on and running on the given day
+    public List<PromotionDTO> getActive(LocalDate day) {
+        List<PromotionDTO> active = new ArrayList<>();
+        for (PromotionDTO promotion : getOverlapping(day, day, day)) {
+            if (Boolean.TRUE.equals(promotion.getIsActive())) {
+                active.add(promotion);
+            }
+        }
+        return active;
+    }
+
+    // ACTIVE, UPCOMING or EXPIRED by date alone, like PromotionDTO.status
+    public List<PromotionDTO> getByStatus(String status, LocalDate day) {
+        switch (status) {
+            case "ACTIVE":
+                return getOverlapping(day, day, day);
+            case "UPCOMING":
+                return read(() -> {
+                    List<PromotionDTO> upcoming = new ArrayList<>();
+                    collectStartingAfter(root, day, day, upcoming);
+                    return upcoming;
+                });
+            case "EXPIRED":
+                return read(() -> {
+                    List<PromotionDTO> expired = new ArrayList<>();
+                    byEndDate.headMap(day, false).values()
+                        .forEach(promotions -> promotions.values().forEach(p -> expired.add(withStatus(p, day))));
+                    return expired;
+                });
+            default:
+                return List.of();
+        }
+    }
+
+    // Promotions running on at least one day of [from, to], ordered by start date
+    public List<PromotionDTO> getOverlapping(LocalDate from, LocalDate to) {
+        return getOverlapping(from, to, LocalDate.now());
+    }
+
+    private List<PromotionDTO> getOverlapping(LocalDate from, LocalDate to, LocalDate day) {
+        return read(() -> {
+            List<PromotionDTO> overlapping = new ArrayList<>();
+            collectOverlapping(root, from, to, day, overlapping);
+            return overlapping;
+        });
+    }
+
+    private List<PromotionDTO> read(Supplier<List<PromotionDTO>> query) {
+        if (!loaded) {
+            reload();
+        }
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(PromotionDTO promotion) {
+        byId.put(promotion.getPromotionId(), promotion);
+        byEndDate.computeIfAbsent(promotion.getEndDate(), k -> new LinkedHashMap<>()).put(promotion.getPromotionId(), promotion);
+        root = insert(root, new Node(promotion));
+    }
+
+    private void remove(Integer promotionId) {
+        PromotionDTO existing = byId.remove(promotionId);
+        if (existing == null) {
+            return;
+        }
+        Map<Integer, PromotionDTO> ending = byEndDate.get(existing.getEndDate());
+        ending.remove(promotionId);
+        if (ending.isEmpty()) {
+            byEndDate.remove(existing.getEndDate());
+        }
+        root = delete(root, existing.getStartDate(), promotionId);
+    }
+
+    private static void collectOverlapping(Node node, LocalDate from, LocalDate to, LocalDate day, List<PromotionDTO> out) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, day, out);
+        if (!node.start.isAfter(to)) {
+            if (!node.promotion.getEndDate().isBefore(from)) {
+                out.add(withStatus(node.promotion, day));
+            }
+            collectOverlapping(node.right, from, to, day, out);
+        }
+    }
+
+    private static void collectStartingAfter(Node node, LocalDate after, LocalDate day, List<PromotionDTO> out) {
+        if (node == null) {
+            return;
+        }
+        if (node.start.isAfter(after)) {
+            collectStartingAfter(node.left, after, day, out);
+            out.add(withStatus(node.promotion, day));
+        }
+        collectStartingAfter(node.right, after, day, out);
+    }
+
+    private static PromotionDTO withStatus(PromotionDTO promotion, LocalDate day) {
+        return new PromotionDTO(promotion.getPromotionId(), promotion.getPromotionName(), promotion.getDescription(),
+            promotion.getDiscountPercentage(), promotion.getDiscountAmount(), promotion.getStartDate(), promotion.getEndDate(),
+            promotion.getApplicableProducts(), promotion.getIsActive(),
+            PromotionDTO.statusOn(promotion.getStartDate(), promotion.getEndDate(), day));
+    }
+
+    private static int compare(LocalDate start, Integer promotionId, Node node) {
+        int byStart = start.compareTo(node.start);
+        return byStart != 0 ? byStart : promotionId.compareTo(node.promotion.getPromotionId());
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.promotion.getPromotionId(), node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, LocalDate start, Integer promotionId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, promotionId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, promotionId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, promotionId);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(node.right, successor.start, successor.promotion.getPromotionId());
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        node.update();
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static class Node {
+        private final PromotionDTO promotion;
+        private final LocalDate start;
+        private LocalDate maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(PromotionDTO promotion) {
+            this.promotion = promotion;
+            this.start = promotion.getStartDate();
+            this.maxEnd = promotion.getEndDate();
+        }
+
+        private void update() {
+            height = Math.max(height(left), height(right)) + 1;
+            maxEnd = promotion.getEndDate();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.grocery.service;
+
+import com.grocery.dto.PromotionDTO;
+import com.grocery.event.PromotionChangedEvent;
+import com.grocery.repository.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Active promotions compiled into product id and category lookups. applicableProducts is parsed once
+// per promotion change; a token is a product id, a category name or ALL. A promotion without targets
+// applies to nothing, since the seeded ones only name their products in the description.
+@Service
+public class PromotionIndex {
+    private static final String ALL_PRODUCTS = "ALL";
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    private final Map<Integer, CompiledPromotion> compiled = new TreeMap<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return reload();
+        }
+        // Promotions start and end at midnight, so a new day needs a new snapshot but no re-parsing
+        return current.day.equals(LocalDate.now()) ? current : rebuild();
+    }
+
+    public synchronized Snapshot reload() {
+        compiled.clear();
+        promotionRepository.findAll().forEach(p -> compiled.put(p.getPromotionId(), compile(PromotionDTO.fromEntity(p))));
+        return rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPromotionChanged(PromotionChangedEvent event) {
+        if (event.isDeleted()) {
+            compiled.remove(event.getPromotionId());
+        } else {
+            compiled.put(event.getPromotionId(), compile(event.getPromotion()));
+        }
+        rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        LocalDate today = LocalDate.now();
+        Map<Integer, List<CompiledPromotion>> byProduct = new HashMap<>();
+        Map<String, List<CompiledPromotion>> byCategory = new HashMap<>();
+        List<CompiledPromotion> storeWide = new ArrayList<>();
+        for (CompiledPromotion promotion : compiled.values()) {
+            if (!promotion.isActiveOn(today)) {
+                continue;
+            }
+            if (promotion.storeWide) {
+                storeWide.add(promotion);
+            }
+            promotion.productIds.forEach(id -> byProduct.computeIfAbsent(id, k -> new ArrayList<>()).add(promotion));
+            promotion.categories.forEach(c -> byCategory.computeIfAbsent(c, k -> new ArrayList<>()).add(promotion));
+        }
+        Snapshot previous = snapshot.get();
+        long version = previous != null ? previous.version + 1 : System.currentTimeMillis();
+        Snapshot rebuilt = new Snapshot(version, today, byProduct, byCategory, storeWide);
+        snapshot.set(rebuilt);
+        return rebuilt;
+    }
+
+    private static CompiledPromotion compile(PromotionDTO promotion) {
+        Set<Integer> productIds = new LinkedHashSet<>();
+        Set<String> categories = new LinkedHashSet<>();
+        String targets = promotion.getApplicableProducts();
+        boolean storeWide = false;
+        if (targets != null) {
+            for (String token : targets.split("[,;]")) {
+                String value = token.trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if (value.equalsIgnoreCase(ALL_PRODUCTS)) {
+                    storeWide = true;
+                } else if (value.chars().allMatch(Character::isDigit)) {
+                    productIds.add(Integer.valueOf(value));
+                } else {
+                    categories.add(categoryKey(value));
+                }
+            }
+        }
+        return new CompiledPromotion(promotion, storeWide, productIds, categories);
+    }
+
+    // MySQL compares categories case-insensitively, so the index does too
+    static String categoryKey(String category) {
+        return category != null ? category.trim().toLowerCase() : "";
+    }
+
+    public static class CompiledPromotion {
+        private final Integer promotionId;
+        private final String promotionName;
+        private final BigDecimal discountPercentage;
+        private final BigDecimal discountAmount;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final boolean active;
+        private final boolean storeWide;
+        private final Set<Integer> productIds;
+        private final Set<String> categories;
+
+        private CompiledPromotion(PromotionDTO promotion, boolean storeWide, Set<Integer> productIds, Set<String> categories) {
+            this.promotionId = promotion.getPromotionId();
+            this.promotionName = promotion.getPromotionName();
+            this.discountPercentage = promotion.getDiscountPercentage();
+            this.discountAmount = promotion.getDiscountAmount();
+            this.startDate = promotion.getStartDate();
+            this.endDate = promotion.getEndDate();
+            this.active = Boolean.TRUE.equals(promotion.getIsActive());
+            this.storeWide = storeWide;
+            this.productIds = Set.copyOf(productIds);
+            this.categories = Set.copyOf(categories);
+        }
+
+        private boolean isActiveOn(LocalDate day) {
+            return active && !day.isBefore(startDate) && !day.isAfter(endDate);
+        }
+
+        public Integer getPromotionId() {
+            return promotionId;
+        }
+
+        public String getPromotionName() {
+            return promotionName;
+        }
+
+        public BigDecimal getDiscountPercentage() {
+            return discountPercentage;
+        }
+
+        public BigDecimal getDiscountAmount() {
+            return discountAmount;
+        }
+    }
+
+    public static class Snapshot {
+        private final long version;
+        private final LocalDate day;
+        private final Map<Integer, List<CompiledPromotion>> byProduct;
+        private final Map<String, List<CompiledPromotion>> byCategory;
+        private final List<CompiledPromotion> storeWide;
+
+        private Snapshot(long version, LocalDate day, Map<Integer, List<CompiledPromotion>> byProduct,
+                Map<String, List<CompiledPromotion>> byCategory, List<CompiledPromotion> storeWide) {
+            this.version = version;
+            this.day = day;
+            this.byProduct = Collections.unmodifiableMap(byProduct);
+            this.byCategory = Collections.unmodifiableMap(byCategory);
+            this.storeWide = List.copyOf(storeWide);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        // Every promotion that covers the product, through its id, its category or a store-wide promotion
+        public List<CompiledPromotion> getApplicable(Integer productId, String category) {
+            List<CompiledPromotion> byId = byProduct.getOrDefault(productId, List.of());
+            List<CompiledPromotion> inCategory = byCategory.getOrDefault(categoryKey(category), List.of());
+            if (inCategory.isEmpty() && storeWide.isEmpty()) {
+                return byId;
+            }
+            List<CompiledPromotion> applicable = new ArrayList<>(byId.size() + inCategory.size() + storeWide.size());
+            applicable.addAll(byId);
+            applicable.addAll(inCategory);
+            applicable.addAll(storeWide);
+            return applicable;
+        }
+    }
+}
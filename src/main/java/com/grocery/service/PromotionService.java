@@ -1,28 +1,49 @@
 package com.grocery.service;
 
+import com.grocery.dto.CursorPage;
 import com.grocery.dto.PromotionDTO;
+import com.grocery.event.PromotionChangedEvent;
 import com.grocery.model.Promotion;
 import com.grocery.repository.PromotionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PromotionService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "promotionId", Integer.class,
+        "promotionName", String.class,
+        "startDate", LocalDate.class,
+        "endDate", LocalDate.class,
+        "createdAt", LocalDateTime.class
+    );
+
     @Autowired
     private PromotionRepository promotionRepository;
 
+    @Autowired
+    private PromotionCalendar promotionCalendar;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public PromotionDTO createPromotion(Promotion promotion) {
         if (promotion.getEndDate().isBefore(promotion.getStartDate())) {
             throw new RuntimeException("End date must be after start date");
         }
         Promotion savedPromotion = promotionRepository.save(promotion);
-        return PromotionDTO.fromEntity(savedPromotion);
+        PromotionDTO createdPromotion = PromotionDTO.fromEntity(savedPromotion);
+        eventPublisher.publishEvent(new PromotionChangedEvent(createdPromotion.getPromotionId(), createdPromotion));
+        return createdPromotion;
     }
 
     public PromotionDTO getPromotionById(Integer promotionId) {
@@ -36,34 +57,24 @@ public class PromotionService {
             .collect(Collectors.toList());
     }
 
+    public CursorPage<PromotionDTO> getPromotionsPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "promotionId", SORTABLE_FIELDS);
+        return query.toPage(promotionRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), PromotionDTO::fromEntity);
+    }
+
     public List<PromotionDTO> getActivePromotions() {
-        LocalDate today = LocalDate.now();
-        return promotionRepository.findAll().stream()
-            .filter(p -> p.getIsActive() && 
-                    !today.isBefore(p.getStartDate()) && 
-                    !today.isAfter(p.getEndDate()))
-            .map(PromotionDTO::fromEntity)
-            .collect(Collectors.toList());
+        return promotionCalendar.getActive(LocalDate.now());
     }
 
     public List<PromotionDTO> getPromotionsByStatus(String status) {
-        LocalDate today = LocalDate.now();
-        return promotionRepository.findAll().stream()
-            .filter(p -> {
-                if (today.isBefore(p.getStartDate())) {
-                    return status.equals("UPCOMING");
-                } else if (today.isAfter(p.getEndDate())) {
-                    return status.equals("EXPIRED");
-                } else {
-                    return status.equals("ACTIVE");
-                }
-            })
-            .map(PromotionDTO::fromEntity)
-            .collect(Collectors.toList());
+        return promotionCalendar.getByStatus(status, LocalDate.now());
     }
 
-    public List<Promotion> getPromotionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return promotionRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(startDate, endDate);
+    public List<PromotionDTO> getPromotionsByDateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        return promotionCalendar.getOverlapping(startDate, endDate);
     }
 
     public PromotionDTO updatePromotion(Integer promotionId, Promotion promotionDetails) {
@@ -84,7 +95,9 @@ public class PromotionService {
             existingPromotion.setIsActive(promotionDetails.getIsActive());
             
             Promotion updatedPromotion = promotionRepository.save(existingPromotion);
-            return PromotionDTO.fromEntity(updatedPromotion);
+            PromotionDTO updatedPromotionDTO = PromotionDTO.fromEntity(updatedPromotion);
+            eventPublisher.publishEvent(new PromotionChangedEvent(promotionId, updatedPromotionDTO));
+            return updatedPromotionDTO;
         }
         return null;
     }
@@ -92,6 +105,7 @@ public class PromotionService {
     public boolean deletePromotion(Integer promotionId) {
         if (promotionRepository.existsById(promotionId)) {
             promotionRepository.deleteById(promotionId);
+            eventPublisher.publishEvent(new PromotionChangedEvent(promotionId, null));
             return true;
         }
         return false;
@@ -103,7 +117,9 @@ public class PromotionService {
             Promotion existingPromotion = promotion.get();
             existingPromotion.setIsActive(!existingPromotion.getIsActive());
             Promotion updatedPromotion = promotionRepository.save(existingPromotion);
-            return PromotionDTO.fromEntity(updatedPromotion);
+            PromotionDTO updatedPromotionDTO = PromotionDTO.fromEntity(updatedPromotion);
+            eventPublisher.publishEvent(new PromotionChangedEvent(promotionId, updatedPromotionDTO));
+            return updatedPromotionDTO;
         }
         return null;
     }
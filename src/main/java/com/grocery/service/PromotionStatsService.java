@@ -0,0 +1,203 @@
+package com.grocery.service;
+
+import com.grocery.dto.OrderItemDTO;
+import com.grocery.dto.PromotionAnalyticsDTO;
+import com.grocery.dto.PromotionDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Per-promotion usage counted on the order path with LongAdders, so concurrent checkouts never contend on a
+// row, and written to promotion_stats every few seconds. Reads are served from memory.
+@Service
+public class PromotionStatsService {
+    private static final String UPSERT_STATS_SQL =
+        "INSERT INTO promotion_stats (promotion_id, redemptions, units_sold, discount_total, attributed_revenue, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE redemptions = redemptions + VALUES(redemptions), units_sold = units_sold + VALUES(units_sold), " +
+        "discount_total = discount_total + VALUES(discount_total), attributed_revenue = attributed_revenue + VALUES(attributed_revenue), " +
+        "updated_at = VALUES(updated_at)";
+    private static final String LOAD_STATS_SQL =
+        "SELECT promotion_id, redemptions, units_sold, discount_total, attributed_revenue FROM promotion_stats";
+
+    @Autowired
+    private PromotionCalendar promotionCalendar;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Integer, Counters> counters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    // Money is counted in cents. The adders only ever grow; a flush writes what was added since the last one,
+    // so increments racing with a flush are picked up next time instead of being lost to a reset.
+    private static final class Counters {
+        private final LongAdder redemptions = new LongAdder();
+        private final LongAdder units = new LongAdder();
+        private final LongAdder discountCents = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+        private final long[] persisted = new long[4];
+        private final long[] flushed = new long[4];
+
+        private long[] totals() {
+            return new long[] { redemptions.sum(), units.sum(), discountCents.sum(), revenueCents.sum() };
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        jdbcTemplate.query(LOAD_STATS_SQL, rs -> {
+            Counters loaded = counters.computeIfAbsent(rs.getInt("promotion_id"), k -> new Counters());
+            loaded.persisted[0] = rs.getLong("redemptions");
+            loaded.persisted[1] = rs.getLong("units_sold");
+            loaded.persisted[2] = toCents(rs.getBigDecimal("discount_total"));
+            loaded.persisted[3] = toCents(rs.getBigDecimal("attributed_revenue"));
+        });
+    }
+
+    // Attributes each persisted line of a new order to the promotion it was charged under,
+    // counted once the order's transaction commits
+    public void recordOrder(List<OrderItemDTO> lines) {
+        Map<Integer, long[]> usage = new HashMap<>();
+        for (OrderItemDTO line : lines) {
+            if (line.getPromotionId() == null) {
+                continue;
+            }
+            long[] totals = usage.computeIfAbsent(line.getPromotionId(), k -> new long[] { 1, 0, 0, 0 });
+            totals[1] += line.getQuantity();
+            totals[2] += toCents(line.getDiscount());
+            totals[3] += toCents(line.getSubtotal());
+        }
+        if (usage.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(usage);
+                }
+            });
+        } else {
+            add(usage);
+        }
+    }
+
+    public PromotionAnalyticsDTO getAnalytics(Integer promotionId) {
+        Counters stats = counters.get(promotionId);
+        PromotionDTO promotion = promotionCalendar.getPromotion(promotionId, LocalDate.now());
+        if (stats == null && promotion == null) {
+            return null;
+        }
+        return toDTO(promotionId, stats != null ? stats : new Counters(), promotion);
+    }
+
+    // metric is redemptions, units, discount or revenue
+    public List<PromotionAnalyticsDTO> getLeaderboard(String metric, int limit) {
+        Comparator<PromotionAnalyticsDTO> order;
+        switch (metric) {
+            case "redemptions":
+                order = Comparator.comparingLong(PromotionAnalyticsDTO::getRedemptions);
+                break;
+            case "units":
+                order = Comparator.comparingLong(PromotionAnalyticsDTO::getUnitsSold);
+                break;
+            case "discount":
+                order = Comparator.comparing(PromotionAnalyticsDTO::getDiscountTotal);
+                break;
+            case "revenue":
+                order = Comparator.comparing(PromotionAnalyticsDTO::getAttributedRevenue);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        LocalDate today = LocalDate.now();
+        return counters.entrySet().stream()
+            .map(e -> toDTO(e.getKey(), e.getValue(), promotionCalendar.getPromotion(e.getKey(), today)))
+            .sorted(order.reversed().thenComparing(PromotionAnalyticsDTO::getPromotionId))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${grocery.promotions.stats.flush-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> batch = new ArrayList<>();
+            Map<Counters, long[]> written = new HashMap<>();
+            counters.forEach((promotionId, stats) -> {
+                long[] totals = stats.totals();
+                long[] delta = new long[4];
+                boolean changed = false;
+                for (int i = 0; i < 4; i++) {
+                    delta[i] = totals[i] - stats.flushed[i];
+                    changed |= delta[i] != 0;
+                }
+                if (changed) {
+                    batch.add(new Object[] { promotionId, delta[0], delta[1], fromCents(delta[2]), fromCents(delta[3]), now });
+                    written.put(stats, totals);
+                }
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_STATS_SQL, batch);
+                written.forEach((stats, totals) -> System.arraycopy(totals, 0, stats.flushed, 0, 4));
+            } catch (RuntimeException e) {
+                // Nothing is marked flushed, so the same deltas go out on the next run
+                System.out.println("Promotion stats flush failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void add(Map<Integer, long[]> usage) {
+        usage.forEach((promotionId, totals) -> {
+            Counters stats = counters.computeIfAbsent(promotionId, k -> new Counters());
+            stats.redemptions.add(totals[0]);
+            stats.units.add(totals[1]);
+            stats.discountCents.add(totals[2]);
+            stats.revenueCents.add(totals[3]);
+        });
+    }
+
+    private static PromotionAnalyticsDTO toDTO(Integer promotionId, Counters stats, PromotionDTO promotion) {
+        long[] totals = stats.totals();
+        return new PromotionAnalyticsDTO(promotionId, promotion != null ? promotion.getPromotionName() : null,
+            stats.persisted[0] + totals[0], stats.persisted[1] + totals[1],
+            fromCents(stats.persisted[2] + totals[2]), fromCents(stats.persisted[3] + totals[3]));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).longValue() : 0;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,183 @@
+package com.grocery.service;
+
+import com.grocery.dto.CategorySalesDTO;
+import com.grocery.dto.DailySalesDTO;
+import com.grocery.dto.ProductSalesDTO;
+import com.grocery.model.Order;
+import com.grocery.repository.DailyCategorySalesRepository;
+import com.grocery.repository.DailyProductSalesRepository;
+import com.grocery.repository.DailySalesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Pre-aggregated sales per day, per day and category, and per day and product. Orders are added when
+// they enter a counted status and subtracted when they leave it, in the same transaction as the change.
+@Service
+@Transactional
+public class SalesRollupService {
+    public static final Set<Order.OrderStatus> COUNTED_STATUSES =
+        EnumSet.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    // :sign is +1 or -1; the status guard keeps rows a concurrent writer already moved out of the delta
+    private static final String DAILY_DELTA_SQL =
+        "INSERT INTO sales_daily (sale_date, order_count, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), :sign * COUNT(*), :sign * SUM(o.total_amount) " +
+        "FROM orders o WHERE o.order_id IN (:orderIds) AND o.status = :status " +
+        "GROUP BY CAST(o.order_date AS DATE) " +
+        "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)";
+
+    private static final String CATEGORY_DELTA_SQL =
+        "INSERT INTO sales_daily_category (sale_date, category, units_sold, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), p.category, :sign * SUM(i.quantity), :sign * SUM(i.subtotal) " +
+        "FROM orders o JOIN order_items i ON i.order_id = o.order_id JOIN products p ON p.product_id = i.product_id " +
+        "WHERE o.order_id IN (:orderIds) AND o.status = :status " +
+        "GROUP BY CAST(o.order_date AS DATE), p.category " +
+        "ON DUPLICATE KEY UPDATE units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)";
+
+    private static final String PRODUCT_DELTA_SQL =
+        "INSERT INTO sales_daily_product (sale_date, product_id, units_sold, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), i.product_id, :sign * SUM(i.quantity), :sign * SUM(i.subtotal) " +
+        "FROM orders o JOIN order_items i ON i.order_id = o.order_id " +
+        "WHERE o.order_id IN (:orderIds) AND o.status = :status " +
+        "GROUP BY CAST(o.order_date AS DATE), i.product_id " +
+        "ON DUPLICATE KEY UPDATE units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)";
+
+    private static final List<String> CLEAR_RANGE_SQL = List.of(
+        "DELETE FROM sales_daily WHERE sale_date >= :from",
+        "DELETE FROM sales_daily_category WHERE sale_date >= :from",
+        "DELETE FROM sales_daily_product WHERE sale_date >= :from"
+    );
+
+    private static final List<String> REBUILD_RANGE_SQL = List.of(
+        "INSERT INTO sales_daily (sale_date, order_count, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), COUNT(*), SUM(o.total_amount) FROM orders o " +
+        "WHERE o.order_date >= :from AND o.status IN (:statuses) GROUP BY CAST(o.order_date AS DATE)",
+        "INSERT INTO sales_daily_category (sale_date, category, units_sold, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), p.category, SUM(i.quantity), SUM(i.subtotal) " +
+        "FROM orders o JOIN order_items i ON i.order_id = o.order_id JOIN products p ON p.product_id = i.product_id " +
+        "WHERE o.order_date >= :from AND o.status IN (:statuses) GROUP BY CAST(o.order_date AS DATE), p.category",
+        "INSERT INTO sales_daily_product (sale_date, product_id, units_sold, revenue) " +
+        "SELECT CAST(o.order_date AS DATE), i.product_id, SUM(i.quantity), SUM(i.subtotal) " +
+        "FROM orders o JOIN order_items i ON i.order_id = o.order_id " +
+        "WHERE o.order_date >= :from AND o.status IN (:statuses) GROUP BY CAST(o.order_date AS DATE), i.product_id"
+    );
+
+    // Must stay well inside grocery.archive.order-age-days: reconciliation only sees the hot orders table
+    @Value("${grocery.analytics.reconcile-days:7}")
+    private int reconcileDays;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyCategorySalesRepository dailyCategorySalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    // Call after the orders hold their new status; a null status means the order is new or about to be deleted
+    public void recordTransition(Collection<Integer> orderIds, Order.OrderStatus from, Order.OrderStatus to) {
+        boolean wasCounted = from != null && COUNTED_STATUSES.contains(from);
+        boolean isCounted = to != null && COUNTED_STATUSES.contains(to);
+        if (wasCounted == isCounted || orderIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds)
+            .addValue("sign", isCounted ? 1 : -1)
+            .addValue("status", (to != null ? to : from).name());
+        namedParameterJdbcTemplate.update(DAILY_DELTA_SQL, params);
+        namedParameterJdbcTemplate.update(CATEGORY_DELTA_SQL, params);
+        namedParameterJdbcTemplate.update(PRODUCT_DELTA_SQL, params);
+    }
+
+    @Scheduled(cron = "${grocery.analytics.reconcile-cron:0 0 2 * * *}")
+    public void scheduledReconcile() {
+        reconcile(reconcileDays);
+    }
+
+    // Rebuilds the most recent days from the orders table, correcting any drift in the incremental deltas
+    public LocalDate reconcile(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Reconciliation needs at least one day");
+        }
+        LocalDate from = LocalDate.now().minusDays(days - 1);
+        rebuildFrom(from);
+        return from;
+    }
+
+    // Seeds empty rollups, e.g. on first start after the tables were added
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (dailySalesRepository.count() > 0) {
+            return;
+        }
+        LocalDate firstOrderDate = namedParameterJdbcTemplate.queryForObject(
+            "SELECT CAST(MIN(order_date) AS DATE) FROM orders", new MapSqlParameterSource(), LocalDate.class);
+        if (firstOrderDate != null) {
+            rebuildFrom(firstOrderDate);
+        }
+    }
+
+    private void rebuildFrom(LocalDate from) {
+        MapSqlParameterSource params = new MapSqlParameterSource("from", from)
+            .addValue("statuses", COUNTED_STATUSES.stream().map(Enum::name).collect(Collectors.toList()));
+        for (String sql : CLEAR_RANGE_SQL) {
+            namedParameterJdbcTemplate.update(sql, params);
+        }
+        for (String sql : REBUILD_RANGE_SQL) {
+            namedParameterJdbcTemplate.update(sql, params);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailySalesRepository.findBySaleDateBetweenOrderBySaleDate(from, to).stream()
+            .map(DailySalesDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySalesDTO> getCategorySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailyCategorySalesRepository.sumByCategory(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > 500) {
+            throw new IllegalArgumentException("Limit must be between 1 and 500");
+        }
+        return dailyProductSalesRepository.sumByProduct(from, to, PageRequest.of(0, limit));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
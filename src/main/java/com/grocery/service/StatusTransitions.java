@@ -0,0 +1,88 @@
+package com.grocery.service;
+
+import com.grocery.dto.BulkStatusUpdateResult;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Allowed status moves for an entity plus the chunked, set-based bulk transition built on them
+public class StatusTransitions<S extends Enum<S>> {
+    public static final int MAX_IDS = 5000;
+    private static final int CHUNK_SIZE = 500;
+
+    private final Map<S, Set<S>> allowed;
+
+    public StatusTransitions(Map<S, Set<S>> allowed) {
+        this.allowed = allowed;
+    }
+
+    public boolean isAllowed(S from, S to) {
+        return allowed.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    public interface StatusLoader<S> {
+        Map<Integer, S> load(List<Integer> ids);
+    }
+
+    public interface StatusUpdater<S> {
+        // Moves the given ids from one status to another and returns the number of rows changed
+        int update(List<Integer> ids, S from, S to);
+    }
+
+    public BulkStatusUpdateResult apply(List<Integer> ids, S target, StatusLoader<S> loader, StatusUpdater<S> updater) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        Set<Integer> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be updated at once");
+        }
+
+        Map<Integer, BulkStatusUpdateResult.Outcome> outcomes = new HashMap<>();
+        List<Integer> all = new ArrayList<>(requested);
+        for (int start = 0; start < all.size(); start += CHUNK_SIZE) {
+            List<Integer> chunk = all.subList(start, Math.min(start + CHUNK_SIZE, all.size()));
+            Map<Integer, S> current = loader.load(chunk);
+
+            // One UPDATE per source status; the status guard in its WHERE clause catches concurrent changes
+            Map<S, List<Integer>> bySource = new HashMap<>();
+            for (Integer id : chunk) {
+                S status = current.get(id);
+                if (status == null) {
+                    outcomes.put(id, new BulkStatusUpdateResult.Outcome(id, "NOT_FOUND", null));
+                } else if (status == target) {
+                    outcomes.put(id, new BulkStatusUpdateResult.Outcome(id, "UNCHANGED", status.name()));
+                } else if (!isAllowed(status, target)) {
+                    outcomes.put(id, new BulkStatusUpdateResult.Outcome(id, "INVALID_TRANSITION", status.name()));
+                } else {
+                    bySource.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+                }
+            }
+
+            for (Map.Entry<S, List<Integer>> group : bySource.entrySet()) {
+                String previous = group.getKey().name();
+                int changed = updater.update(group.getValue(), group.getKey(), target);
+                Map<Integer, S> after = changed == group.getValue().size() ? null : loader.load(group.getValue());
+                for (Integer id : group.getValue()) {
+                    boolean updated = after == null || after.get(id) == target;
+                    outcomes.put(id, new BulkStatusUpdateResult.Outcome(id, updated ? "UPDATED" : "CONFLICT", previous));
+                }
+            }
+        }
+
+        List<BulkStatusUpdateResult.Outcome> ordered = new ArrayList<>(requested.size());
+        int updated = 0;
+        for (Integer id : requested) {
+            BulkStatusUpdateResult.Outcome outcome = outcomes.get(id);
+            if ("UPDATED".equals(outcome.getResult())) {
+                updated++;
+            }
+            ordered.add(outcome);
+        }
+        return new BulkStatusUpdateResult(target.name(), updated, ordered.size() - updated, ordered);
+    }
+}
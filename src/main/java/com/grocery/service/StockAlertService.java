@@ -0,0 +1,170 @@
+package com.grocery.service;
+
+import com.grocery.dto.StockAlertDTO;
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.event.StockChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps every stock row's alert status in memory, with the rows that are low or out of stock in a
+// sorted index. Stock writes refresh only the rows they touched, and status changes are pushed to
+// subscribed admin pages over Server-Sent Events.
+@Service
+public class StockAlertService {
+    public static final String IN_STOCK = "IN_STOCK";
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+    private static final String REMOVED = "REMOVED";
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private static final String LOAD_SQL =
+        "SELECT s.stock_id, s.product_id, p.product_name, s.warehouse_location, s.quantity_available, s.reorder_level " +
+        "FROM stock_management s JOIN products p ON p.product_id = s.product_id";
+
+    // Out of stock first, then the emptiest rows
+    private static final Comparator<StockAlertDTO> ALERT_ORDER = Comparator
+        .comparing((StockAlertDTO a) -> OUT_OF_STOCK.equals(a.getStockStatus()) ? 0 : 1)
+        .thenComparing(StockAlertDTO::getQuantityAvailable)
+        .thenComparing(StockAlertDTO::getStockId);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    private final StockRowLocks rowLocks = new StockRowLocks();
+    private final Map<Integer, StockAlertDTO> states = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<StockAlertDTO> alerts = new ConcurrentSkipListSet<>(ALERT_ORDER);
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    // Pushes happen off the writer's thread so a slow client never holds up a stock update
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "stock-alert-dispatch"));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Integer, StockAlertDTO> rows = namedParameterJdbcTemplate.query(LOAD_SQL, this::mapRow).stream()
+            .collect(Collectors.toMap(StockAlertDTO::getStockId, Function.identity()));
+        Set<Integer> stockIds = new HashSet<>(states.keySet());
+        stockIds.addAll(rows.keySet());
+        stockIds.forEach(stockId -> apply(stockId, rows.get(stockId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.getStockIds());
+    }
+
+    // Rows are read and applied under their locks, so an older read can't replace a newer status
+    public void refresh(Collection<Integer> stockIds) {
+        if (stockIds.isEmpty()) {
+            return;
+        }
+        rowLocks.withLocks(stockIds, () -> {
+            Map<Integer, StockAlertDTO> rows = namedParameterJdbcTemplate.query(LOAD_SQL + " WHERE s.stock_id IN (:stockIds)",
+                    new MapSqlParameterSource("stockIds", stockIds), this::mapRow).stream()
+                .collect(Collectors.toMap(StockAlertDTO::getStockId, Function.identity()));
+            stockIds.forEach(stockId -> apply(stockId, rows.get(stockId)));
+            return null;
+        });
+    }
+
+    public List<StockAlertDTO> getAlerts() {
+        return new ArrayList<>(alerts);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        List<StockAlertDTO> snapshot = getAlerts();
+        dispatcher.execute(() -> send(emitter, SseEmitter.event().name("snapshot").data(snapshot)));
+        return emitter;
+    }
+
+    // Lets proxies and the server notice clients that went away without closing the stream
+    @Scheduled(fixedRate = 30000)
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.forEach(emitter -> send(emitter, SseEmitter.event().comment("keep-alive"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    // The per-key compute keeps the state map and the sorted index in step under concurrent refreshes
+    private void apply(Integer stockId, StockAlertDTO current) {
+        StockAlertDTO[] previous = new StockAlertDTO[1];
+        states.compute(stockId, (id, old) -> {
+            previous[0] = old;
+            if (old != null) {
+                alerts.remove(old);
+            }
+            if (current != null && !IN_STOCK.equals(current.getStockStatus())) {
+                alerts.add(current);
+            }
+            return current;
+        });
+
+        String before = previous[0] != null ? previous[0].getStockStatus() : IN_STOCK;
+        String after = current != null ? current.getStockStatus() : (IN_STOCK.equals(before) ? IN_STOCK : REMOVED);
+        if (!before.equals(after)) {
+            StockAlertDTO base = current != null ? current : previous[0];
+            StockAlertDTO change = new StockAlertDTO(base.getStockId(), base.getProductId(), base.getProductName(),
+                base.getWarehouseLocation(), base.getQuantityAvailable(), base.getReorderLevel(), after, before, LocalDateTime.now());
+            dispatcher.execute(() -> subscribers.forEach(emitter -> send(emitter, SseEmitter.event().name("alert").data(change))));
+        }
+    }
+
+    private StockAlertDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Integer stockId = rs.getInt("stock_id");
+        int quantity = stockLedger.quantityOr(stockId, rs.getInt("quantity_available"));
+        int reorderLevel = rs.getInt("reorder_level");
+        String status = quantity <= 0 ? OUT_OF_STOCK : quantity <= reorderLevel ? LOW_STOCK : IN_STOCK;
+        return new StockAlertDTO(stockId, rs.getInt("product_id"), rs.getString("product_name"),
+            rs.getString("warehouse_location"), quantity, reorderLevel, status, null, null);
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.grocery.service;
+
+import com.grocery.event.CatalogReloadEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Optional in-memory stock ledger. Quantities live in per-row CAS cells, every committed change is appended
+// to a journal segment, and a background flush writes the net delta per row in one batch. On startup any
+// segment newer than the checkpoint stored in the database is replayed, so a crash loses no committed change.
+@Service
+public class StockLedger {
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE stock_management SET quantity_available = quantity_available + ?, " +
+        "last_restocked = COALESCE(?, last_restocked), updated_at = ? WHERE stock_id = ?";
+    private static final String SEGMENT_PREFIX = "stock-ledger-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    @Value("${grocery.stock.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${grocery.stock.ledger.journal-dir:data/stock-ledger}")
+    private String journalDir;
+
+    // Without fsync the journal survives a process crash but not a power loss
+    @Value("${grocery.stock.ledger.fsync:false}")
+    private boolean fsync;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Integer, Cell> cells = new ConcurrentHashMap<>();
+    // Adjustments share the read side; only sealing a journal segment takes the write side
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    private Path directory;
+    private FileChannel journal;
+    private long segment;
+
+    private static final class Cell {
+        private final AtomicInteger available;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile LocalDateTime lastRestocked;
+
+        private Cell(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(journalDir);
+        Files.createDirectories(directory);
+        long checkpoint = transactionTemplate.execute(status -> {
+            List<Long> rows = jdbcTemplate.queryForList(
+                "SELECT last_segment FROM stock_ledger_checkpoint WHERE checkpoint_id = 1", Long.class);
+            if (rows.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO stock_ledger_checkpoint (checkpoint_id, last_segment) VALUES (1, 0)");
+                return 0L;
+            }
+            return rows.get(0);
+        });
+
+        Map<Integer, Integer> replay = new TreeMap<>();
+        long last = checkpoint;
+        for (Map.Entry<Long, Path> entry : listSegments().entrySet()) {
+            if (entry.getKey() <= checkpoint) {
+                continue;
+            }
+            String[] lines = Files.readString(entry.getValue(), StandardCharsets.UTF_8).split("\n", -1);
+            // The last element is empty unless a crash tore the final write, which was never acknowledged
+            for (int i = 0; i < lines.length - 1; i++) {
+                String[] parts = lines[i].split(" ");
+                replay.merge(Integer.valueOf(parts[0]), Integer.valueOf(parts[1]), Integer::sum);
+            }
+            last = Math.max(last, entry.getKey());
+        }
+        if (last > checkpoint) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> batch = new ArrayList<>();
+            replay.forEach((stockId, delta) -> batch.add(new Object[] { delta, null, now, stockId }));
+            persist(batch, last);
+            System.out.println("StockLedger: replayed " + replay.size() + " stock rows from journal segments up to " + last);
+        }
+        deleteSegmentsUpTo(last);
+        segment = last + 1;
+        journal = openSegment(segment);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    // The ledger's view of a row, or null when the row hasn't been touched through the ledger yet
+    public Integer getAvailable(Integer stockId) {
+        Cell cell = cells.get(stockId);
+        return cell != null ? cell.available.get() : null;
+    }
+
+    // The ledger runs ahead of stock_management until its next flush, so a row read from the table is
+    // only current when the ledger is off or hasn't loaded that row
+    public int quantityOr(Integer stockId, int rowQuantity) {
+        Integer ledgerQuantity = enabled ? getAvailable(stockId) : null;
+        return ledgerQuantity != null ? ledgerQuantity : rowQuantity;
+    }
+
+    // Applies a signed change and returns the new quantity, or null when the stock row doesn't exist
+    public Integer adjust(Integer stockId, int delta, boolean restock) {
+        rotation.readLock().lock();
+        try {
+            Cell cell = cell(stockId);
+            if (cell == null) {
+                return null;
+            }
+            int current;
+            int next;
+            do {
+                current = cell.available.get();
+                next = current + delta;
+                if (next < 0) {
+                    throw new IllegalStateException("Cannot reduce stock below zero");
+                }
+            } while (!cell.available.compareAndSet(current, next));
+            track(cell, stockId, delta);
+            if (restock) {
+                cell.lastRestocked = LocalDateTime.now();
+            }
+            return next;
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    public boolean tryReserve(Integer stockId, int quantity) {
+        try {
+            return adjust(stockId, -quantity, false) != null;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    public void release(Integer stockId, int quantity) {
+        adjust(stockId, quantity, false);
+    }
+
+    // Sets an absolute quantity, recorded as the delta from whatever the cell held at that moment.
+    // Returns that previous quantity, or null when the stock row doesn't exist.
+    public Integer set(Integer stockId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalStateException("Cannot reduce stock below zero");
+        }
+        rotation.readLock().lock();
+        try {
+            Cell cell = cell(stockId);
+            if (cell == null) {
+                return null;
+            }
+            int current = cell.available.getAndSet(quantity);
+            track(cell, stockId, quantity - current);
+            return current;
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    public void forget(Integer stockId) {
+        cells.remove(stockId);
+    }
+
+    @Scheduled(fixedDelayString = "${grocery.stock.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            List<Object[]> batch;
+            long sealed;
+            rotation.writeLock().lock();
+            try {
+                batch = drain();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                sealed = seal();
+            } finally {
+                rotation.writeLock().unlock();
+            }
+            persistOrRequeue(batch, sealed);
+        }
+    }
+
+    // Bulk imports overwrite stock_management directly, so pending deltas are written first and
+    // the cells are dropped to be reseeded from the new rows. Runs before the other reload listeners.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            rotation.writeLock().lock();
+            try {
+                List<Object[]> batch = drain();
+                if (!batch.isEmpty()) {
+                    persistOrRequeue(batch, seal());
+                }
+                cells.clear();
+            } finally {
+                rotation.writeLock().unlock();
+            }
+        }
+    }
+
+    private Cell cell(Integer stockId) {
+        if (!enabled) {
+            throw new IllegalStateException("Stock ledger is disabled");
+        }
+        return cells.computeIfAbsent(stockId, id -> jdbcTemplate.queryForList(
+                "SELECT quantity_available FROM stock_management WHERE stock_id = ?", Integer.class, id).stream()
+            .findFirst()
+            .map(Cell::new)
+            .orElse(null));
+    }
+
+    // Inside a transaction the cell changes at once so concurrent checkouts see it, but the change is only
+    // journaled and queued for the flush once the transaction commits. A rollback takes it out of the cell
+    // again as a reverse delta, not a reset, so concurrent changes are kept.
+    private void track(Cell cell, Integer stockId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(cell, stockId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    if (cell.available.addAndGet(-delta) < 0) {
+                        System.err.println("StockLedger: stock " + stockId + " was sold below zero before a change of " + delta + " rolled back");
+                    }
+                    return;
+                }
+                rotation.readLock().lock();
+                try {
+                    record(cell, stockId, delta);
+                } catch (UncheckedIOException e) {
+                    System.err.println("StockLedger: committed change of " + delta + " on stock " + stockId + " was not journaled: " + e.getMessage());
+                } finally {
+                    rotation.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void record(Cell cell, Integer stockId, int delta) {
+        try {
+            ByteBuffer line = ByteBuffer.wrap((stockId + " " + delta + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                journal.write(line);
+            }
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            cell.available.addAndGet(-delta);
+            throw new UncheckedIOException("Could not journal stock change", e);
+        }
+        cell.pending.addAndGet(delta);
+    }
+
+    // Only called with the write lock held, so no adjustment is half-recorded
+    private List<Object[]> drain() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        // Sorted by stock id so the flush takes row locks in the same order as checkouts
+        new TreeMap<>(cells).forEach((stockId, cell) -> {
+            int delta = cell.pending.getAndSet(0);
+            LocalDateTime restocked = cell.lastRestocked;
+            cell.lastRestocked = null;
+            if (delta != 0 || restocked != null) {
+                batch.add(new Object[] { delta, restocked, now, stockId });
+            }
+        });
+        return batch;
+    }
+
+    private long seal() {
+        try {
+            journal.force(false);
+            journal.close();
+            long sealed = segment;
+            segment++;
+            journal = openSegment(segment);
+            return sealed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate stock ledger journal", e);
+        }
+    }
+
+    // A failed flush puts its deltas back; the sealed segment stays on disk until a later checkpoint covers it
+    private void persistOrRequeue(List<Object[]> batch, long sealed) {
+        try {
+            persist(batch, sealed);
+            deleteSegmentsUpTo(sealed);
+        } catch (RuntimeException e) {
+            for (Object[] row : batch) {
+                Cell cell = cells.get((Integer) row[3]);
+                if (cell != null) {
+                    cell.pending.addAndGet((Integer) row[0]);
+                    if (row[1] != null && cell.lastRestocked == null) {
+                        cell.lastRestocked = (LocalDateTime) row[1];
+                    }
+                }
+            }
+            System.err.println("StockLedger: flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private void persist(List<Object[]> batch, long sealed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch);
+            }
+            jdbcTemplate.update("UPDATE stock_ledger_checkpoint SET last_segment = ? WHERE checkpoint_id = 1", sealed);
+        });
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            });
+        }
+        return segments;
+    }
+
+    private void deleteSegmentsUpTo(long sealed) {
+        try {
+            for (Map.Entry<Long, Path> entry : listSegments().headMap(sealed, true).entrySet()) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        } catch (IOException e) {
+            // Left-over segments are skipped on recovery because the checkpoint already covers them
+            System.err.println("StockLedger: could not delete journal segments: " + e.getMessage());
+        }
+    }
+}
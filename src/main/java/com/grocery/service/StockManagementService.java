@@ -1,54 +1,208 @@
 package com.grocery.service;
 
+import com.grocery.dto.CursorPage;
+import com.grocery.dto.StockAlertDTO;
 import com.grocery.dto.StockManagementDTO;
+import com.grocery.event.StockChangedEvent;
 import com.grocery.model.StockManagement;
+import com.grocery.model.StockMovement;
 import com.grocery.repository.StockManagementRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class StockManagementService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "stockId", Integer.class,
+        "quantityAvailable", Integer.class,
+        "createdAt", LocalDateTime.class
+    );
+
     @Autowired
     private StockManagementRepository stockManagementRepository;
 
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private InventoryValuationService inventoryValuationService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public StockManagementDTO createStock(StockManagement stock) {
         StockManagement savedStock = stockManagementRepository.save(stock);
+        stockMovementService.record(savedStock, savedStock.getQuantityAvailable(), StockMovement.Reason.CREATED);
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(savedStock.getStockId())));
         return StockManagementDTO.fromEntity(savedStock);
     }
 
     public StockManagementDTO getStockById(Integer stockId) {
         Optional<StockManagement> stock = stockManagementRepository.findById(stockId);
-        return stock.map(StockManagementDTO::fromEntity).orElse(null);
+        return stock.map(this::toDTO).orElse(null);
     }
 
     public StockManagementDTO getStockByProductId(Integer productId) {
         Optional<StockManagement> stock = stockManagementRepository.findByProductProductId(productId);
-        return stock.map(StockManagementDTO::fromEntity).orElse(null);
+        return stock.map(this::toDTO).orElse(null);
     }
 
     public List<StockManagementDTO> getAllStocks() {
         return stockManagementRepository.findAll().stream()
-            .map(StockManagementDTO::fromEntity)
+            .map(this::toDTO)
             .collect(Collectors.toList());
     }
 
+    public CursorPage<StockManagementDTO> getStocksPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "stockId", SORTABLE_FIELDS);
+        return query.toPage(stockManagementRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), this::toDTO);
+    }
+
+    // Reserves every line or none of them. Products are processed in id order so concurrent
+    // checkouts take row locks in the same order and can't deadlock each other. A shortfall is left
+    // for the caller to roll back, so a group commit can undo just the one order that hit it.
+    @Transactional(noRollbackFor = IllegalStateException.class)
+    public void reserveStock(Map<Integer, Integer> quantitiesByProduct) {
+        if (stockLedger.isEnabled()) {
+            reserveInLedger(quantitiesByProduct);
+            return;
+        }
+        Map<Integer, List<StockManagement>> candidates = new TreeMap<>();
+        for (Integer productId : quantitiesByProduct.keySet()) {
+            candidates.put(productId, new ArrayList<>());
+        }
+        stockManagementRepository.findByProductIds(quantitiesByProduct.keySet())
+            .forEach(s -> candidates.get(s.getProduct().getProductId()).add(s));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<StockManagement, Integer> reservedFrom = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<StockManagement>> entry : candidates.entrySet()) {
+            int quantity = quantitiesByProduct.get(entry.getKey());
+            boolean reserved = false;
+            // Try the best-stocked warehouse first; a failed update just means it sold out meanwhile
+            for (StockManagement stock : entry.getValue()) {
+                if (stockManagementRepository.reserve(stock.getStockId(), quantity, now) == 1) {
+                    reservedFrom.put(stock, quantity);
+                    reserved = true;
+                    break;
+                }
+            }
+            if (!reserved) {
+                throw new IllegalStateException("Insufficient stock for product ID: " + entry.getKey());
+            }
+        }
+        // Journaled only once every line is reserved, so a savepoint rollback never leaves movements behind
+        reservedFrom.forEach((stock, quantity) -> stockMovementService.record(stock, -quantity, StockMovement.Reason.SALE));
+        eventPublisher.publishEvent(new StockChangedEvent(reservedFrom.keySet().stream()
+            .map(StockManagement::getStockId)
+            .collect(Collectors.toList())));
+    }
+
+    // The ledger reserves lock-free and hands the reservations back itself if the checkout rolls back
+    private void reserveInLedger(Map<Integer, Integer> quantitiesByProduct) {
+        Map<Integer, List<StockManagement>> candidates = new TreeMap<>();
+        for (Integer productId : quantitiesByProduct.keySet()) {
+            candidates.put(productId, new ArrayList<>());
+        }
+        stockManagementRepository.findByProductIds(quantitiesByProduct.keySet())
+            .forEach(s -> candidates.get(s.getProduct().getProductId()).add(s));
+
+        Map<Integer, Integer> reserved = new LinkedHashMap<>();
+        List<StockManagement> reservedRows = new ArrayList<>();
+        for (Map.Entry<Integer, List<StockManagement>> entry : candidates.entrySet()) {
+            int quantity = quantitiesByProduct.get(entry.getKey());
+            List<StockManagement> rows = new ArrayList<>(entry.getValue());
+            rows.sort(Comparator.comparingInt(this::quantityOf).reversed());
+            StockManagement reservedFrom = null;
+            for (StockManagement stock : rows) {
+                if (stockLedger.tryReserve(stock.getStockId(), quantity)) {
+                    reservedFrom = stock;
+                    break;
+                }
+            }
+            if (reservedFrom == null) {
+                reserved.forEach(stockLedger::release);
+                throw new IllegalStateException("Insufficient stock for product ID: " + entry.getKey());
+            }
+            reserved.put(reservedFrom.getStockId(), quantity);
+            reservedRows.add(reservedFrom);
+        }
+
+        reservedRows.forEach(stock -> stockMovementService.record(stock, -reserved.get(stock.getStockId()), StockMovement.Reason.SALE));
+        eventPublisher.publishEvent(new StockChangedEvent(new ArrayList<>(reserved.keySet())));
+    }
+
+    // Hands back what a cancelled order reserved. Order lines don't record the warehouse they were
+    // taken from, so the stock goes back to the product's best-stocked row.
+    public void releaseStock(Map<Integer, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        Map<Integer, StockManagement> targets = new TreeMap<>();
+        stockManagementRepository.findByProductIds(quantitiesByProduct.keySet())
+            .forEach(s -> targets.putIfAbsent(s.getProduct().getProductId(), s));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> released = new ArrayList<>();
+        for (Map.Entry<Integer, StockManagement> entry : targets.entrySet()) {
+            StockManagement stock = entry.getValue();
+            int quantity = quantitiesByProduct.get(entry.getKey());
+            if (stockLedger.isEnabled()) {
+                if (stockLedger.adjust(stock.getStockId(), quantity, false) == null) {
+                    continue;
+                }
+            } else if (stockManagementRepository.release(stock.getStockId(), quantity, now) == 0) {
+                continue;
+            }
+            stockMovementService.record(stock, quantity, StockMovement.Reason.CANCELLATION);
+            released.add(stock.getStockId());
+        }
+        if (!released.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(released));
+        }
+    }
+
+    // Served from the alert index, so only the alerting rows are loaded
     public List<StockManagementDTO> getLowStockItems() {
-        return stockManagementRepository.findAll().stream()
-            .filter(s -> s.getQuantityAvailable() <= s.getReorderLevel())
-            .map(StockManagementDTO::fromEntity)
-            .collect(Collectors.toList());
+        return loadAlerting(stockAlertService.getAlerts().stream()
+            .map(StockAlertDTO::getStockId)
+            .collect(Collectors.toList()));
     }
 
     public List<StockManagementDTO> getOutOfStockItems() {
-        return stockManagementRepository.findAll().stream()
-            .filter(s -> s.getQuantityAvailable() <= 0)
-            .map(StockManagementDTO::fromEntity)
+        return loadAlerting(stockAlertService.getAlerts().stream()
+            .filter(a -> StockAlertService.OUT_OF_STOCK.equals(a.getStockStatus()))
+            .map(StockAlertDTO::getStockId)
+            .collect(Collectors.toList()));
+    }
+
+    private List<StockManagementDTO> loadAlerting(List<Integer> stockIds) {
+        Map<Integer, StockManagement> stocks = stockManagementRepository.findAllById(stockIds).stream()
+            .collect(Collectors.toMap(StockManagement::getStockId, s -> s));
+        return stockIds.stream()
+            .map(stocks::get)
+            .filter(Objects::nonNull)
+            .map(this::toDTO)
             .collect(Collectors.toList());
     }
 
@@ -56,55 +210,79 @@ public class StockManagementService {
         Optional<StockManagement> stock = stockManagementRepository.findById(stockId);
         if (stock.isPresent()) {
             StockManagement existingStock = stock.get();
+            if (stockLedger.isEnabled()) {
+                Integer previousQuantity = stockLedger.set(stockId, stockDetails.getQuantityAvailable());
+                stockManagementRepository.updateDetails(stockId, stockDetails.getWarehouseLocation(),
+                    stockDetails.getReorderLevel(), LocalDateTime.now());
+                eventPublisher.publishEvent(new StockChangedEvent(List.of(stockId)));
+                return stockManagementRepository.findById(stockId).map(updated -> {
+                    stockMovementService.record(updated, stockDetails.getQuantityAvailable() - previousQuantity, StockMovement.Reason.CORRECTION);
+                    return toDTO(updated);
+                }).orElse(null);
+            }
+            stockMovementService.record(existingStock, stockDetails.getQuantityAvailable() - existingStock.getQuantityAvailable(),
+                StockMovement.Reason.CORRECTION);
             existingStock.setQuantityAvailable(stockDetails.getQuantityAvailable());
             existingStock.setWarehouseLocation(stockDetails.getWarehouseLocation());
             existingStock.setReorderLevel(stockDetails.getReorderLevel());
             existingStock.setLastRestocked(LocalDateTime.now());
             StockManagement updatedStock = stockManagementRepository.save(existingStock);
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(stockId)));
             return StockManagementDTO.fromEntity(updatedStock);
         }
         return null;
     }
 
     public StockManagementDTO restockItem(Integer stockId, Integer quantity) {
-        Optional<StockManagement> stock = stockManagementRepository.findById(stockId);
-        if (stock.isPresent()) {
-            StockManagement existingStock = stock.get();
-            existingStock.setQuantityAvailable(existingStock.getQuantityAvailable() + quantity);
-            existingStock.setLastRestocked(LocalDateTime.now());
-            StockManagement updatedStock = stockManagementRepository.save(existingStock);
-            return StockManagementDTO.fromEntity(updatedStock);
-        }
-        return null;
+        return applyDelta(stockId, quantity, StockMovement.Reason.RESTOCK);
     }
 
     public StockManagementDTO adjustStock(Integer stockId, Integer quantity) {
-        Optional<StockManagement> stock = stockManagementRepository.findById(stockId);
-        if (stock.isPresent()) {
-            StockManagement existingStock = stock.get();
-            int newQuantity = existingStock.getQuantityAvailable() + quantity;
-            if (newQuantity < 0) {
-                throw new RuntimeException("Cannot reduce stock below zero");
+        return applyDelta(stockId, quantity, StockMovement.Reason.ADJUSTMENT);
+    }
+
+    // A single conditional UPDATE (or a CAS in the ledger), so concurrent adjustments can't overwrite each other
+    private StockManagementDTO applyDelta(Integer stockId, int quantity, StockMovement.Reason reason) {
+        if (stockLedger.isEnabled()) {
+            if (stockLedger.adjust(stockId, quantity, true) == null) {
+                return null;
             }
-            existingStock.setQuantityAvailable(newQuantity);
-            existingStock.setLastRestocked(LocalDateTime.now());
-            StockManagement updatedStock = stockManagementRepository.save(existingStock);
-            return StockManagementDTO.fromEntity(updatedStock);
+        } else if (stockManagementRepository.adjustQuantity(stockId, quantity, LocalDateTime.now()) == 0) {
+            if (!stockManagementRepository.existsById(stockId)) {
+                return null;
+            }
+            throw new IllegalStateException("Cannot reduce stock below zero");
         }
-        return null;
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(stockId)));
+        return stockManagementRepository.findById(stockId).map(stock -> {
+            stockMovementService.record(stock, quantity, reason);
+            return toDTO(stock);
+        }).orElse(null);
     }
 
     public boolean deleteStock(Integer stockId) {
-        if (stockManagementRepository.existsById(stockId)) {
-            stockManagementRepository.deleteById(stockId);
+        Optional<StockManagement> stock = stockManagementRepository.findById(stockId);
+        if (stock.isPresent()) {
+            stockMovementService.record(stock.get(), -quantityOf(stock.get()), StockMovement.Reason.DELETED);
+            stockManagementRepository.delete(stock.get());
+            if (stockLedger.isEnabled()) {
+                stockLedger.forget(stockId);
+            }
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(stockId)));
             return true;
         }
         return false;
     }
 
-    public Double getTotalInventoryValue() {
-        return stockManagementRepository.findAll().stream()
-            .mapToDouble(s -> s.getProduct().getPrice().doubleValue() * s.getQuantityAvailable())
-            .sum();
+    public BigDecimal getTotalInventoryValue() {
+        return inventoryValuationService.getTotalValue();
+    }
+
+    private int quantityOf(StockManagement stock) {
+        return stockLedger.quantityOr(stock.getStockId(), stock.getQuantityAvailable());
+    }
+
+    private StockManagementDTO toDTO(StockManagement stock) {
+        return StockManagementDTO.fromEntity(stock, quantityOf(stock));
     }
 }
@@ -0,0 +1,188 @@
+package com.grocery.service;
+
+import com.grocery.dto.StockLevelDTO;
+import com.grocery.dto.StockMovementDTO;
+import com.grocery.event.CatalogReloadEvent;
+import com.grocery.model.StockManagement;
+import com.grocery.model.StockMovement;
+import com.grocery.repository.StockMovementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Journal of stock movements plus periodic snapshots. The level of a row at any time is the latest
+// snapshot at or before it plus the movements after that snapshot, so no query reads the full history.
+@Service
+@Transactional
+public class StockMovementService {
+    private static final int MAX_MOVEMENTS = 500;
+
+    private static final String INSERT_MOVEMENT_SQL =
+        "INSERT INTO stock_movements (stock_id, product_id, warehouse_location, delta, reason, created_at) " +
+        "VALUES (:stockId, :productId, :warehouseLocation, :delta, :reason, :createdAt)";
+
+    private static final String LATEST_SNAPSHOT_SQL =
+        "SELECT MAX(taken_at) FROM stock_snapshots WHERE taken_at <= :at";
+
+    // Snapshot rows plus the tail of movements after the snapshot, summed per stock row
+    private static final String DERIVED_LEVELS_SQL =
+        "SELECT k.stock_id, SUM(k.quantity) AS quantity FROM (" +
+        "SELECT stock_id, quantity FROM stock_snapshots WHERE taken_at = :snapshotAt %1$s " +
+        "UNION ALL " +
+        "SELECT stock_id, delta FROM stock_movements WHERE created_at > :snapshotAt AND created_at <= :at %1$s" +
+        ") k GROUP BY k.stock_id";
+
+    private static final String GENESIS_SNAPSHOT_SQL =
+        "INSERT INTO stock_snapshots (stock_id, quantity, taken_at) " +
+        "SELECT stock_id, quantity_available, :at FROM stock_management";
+
+    private static final String RECONCILE_SQL =
+        "INSERT INTO stock_movements (stock_id, product_id, warehouse_location, delta, reason, created_at) " +
+        "SELECT s.stock_id, s.product_id, s.warehouse_location, s.quantity_available - COALESCE(d.quantity, 0), 'RECONCILIATION', :at " +
+        "FROM stock_management s LEFT JOIN (" + String.format(DERIVED_LEVELS_SQL, "") + ") d ON d.stock_id = s.stock_id " +
+        "WHERE s.quantity_available <> COALESCE(d.quantity, 0)";
+
+    @Value("${grocery.stock.snapshots.settle-seconds:300}")
+    private long settleSeconds;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    // Movements are buffered per transaction and written as one batch just before it commits
+    public void record(StockManagement stock, int delta, StockMovement.Reason reason) {
+        record(stock.getStockId(), stock.getProduct().getProductId(), stock.getWarehouseLocation(), delta, reason);
+    }
+
+    public void record(Integer stockId, Integer productId, String warehouseLocation, int delta, StockMovement.Reason reason) {
+        if (delta == 0) {
+            return;
+        }
+        MapSqlParameterSource row = new MapSqlParameterSource("stockId", stockId)
+            .addValue("productId", productId)
+            .addValue("warehouseLocation", warehouseLocation)
+            .addValue("delta", delta)
+            .addValue("reason", reason.name());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(row));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<MapSqlParameterSource> pending = (List<MapSqlParameterSource>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<MapSqlParameterSource> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StockMovementService.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(row);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void takeGenesisSnapshot() {
+        if (latestSnapshotAt(LocalDateTime.now()) == null) {
+            namedParameterJdbcTemplate.update(GENESIS_SNAPSHOT_SQL, new MapSqlParameterSource("at", LocalDateTime.now()));
+        }
+    }
+
+    // Rolls the previous snapshot forward with the movements since, leaving out the last few minutes
+    // so a transaction that is still committing can't land behind the new snapshot
+    @Scheduled(fixedDelayString = "${grocery.stock.snapshots.interval-ms:3600000}",
+               initialDelayString = "${grocery.stock.snapshots.interval-ms:3600000}")
+    public void scheduledSnapshot() {
+        takeSnapshot(LocalDateTime.now().minusSeconds(settleSeconds));
+    }
+
+    public LocalDateTime takeSnapshot(LocalDateTime at) {
+        LocalDateTime previous = latestSnapshotAt(at);
+        if (previous == null || !at.isAfter(previous)) {
+            return previous;
+        }
+        namedParameterJdbcTemplate.update("INSERT INTO stock_snapshots (stock_id, quantity, taken_at) " +
+                "SELECT d.stock_id, d.quantity, :at FROM (" + String.format(DERIVED_LEVELS_SQL, "") + ") d",
+            new MapSqlParameterSource("snapshotAt", previous).addValue("at", at));
+        return at;
+    }
+
+    // Bulk imports overwrite quantities directly; the difference is journaled so derived levels stay right
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReload(CatalogReloadEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime snapshotAt = latestSnapshotAt(now);
+        if (snapshotAt != null) {
+            namedParameterJdbcTemplate.update(RECONCILE_SQL, new MapSqlParameterSource("snapshotAt", snapshotAt).addValue("at", now));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockLevelDTO> getLevels(LocalDateTime at) {
+        LocalDateTime snapshotAt = requireSnapshot(at);
+        return namedParameterJdbcTemplate.query(String.format(DERIVED_LEVELS_SQL, "") + " ORDER BY k.stock_id",
+            new MapSqlParameterSource("snapshotAt", snapshotAt).addValue("at", at),
+            (rs, rowNum) -> new StockLevelDTO(rs.getInt("stock_id"), rs.getInt("quantity"), at, snapshotAt));
+    }
+
+    @Transactional(readOnly = true)
+    public StockLevelDTO getLevel(Integer stockId, LocalDateTime at) {
+        LocalDateTime snapshotAt = requireSnapshot(at);
+        List<Integer> quantity = namedParameterJdbcTemplate.query(String.format(DERIVED_LEVELS_SQL, "AND stock_id = :stockId"),
+            new MapSqlParameterSource("snapshotAt", snapshotAt).addValue("at", at).addValue("stockId", stockId),
+            (rs, rowNum) -> rs.getInt("quantity"));
+        return quantity.isEmpty() ? null : new StockLevelDTO(stockId, quantity.get(0), at, snapshotAt);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockMovementDTO> getMovements(Integer stockId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return stockMovementRepository.findByStockIdAndCreatedAtBetweenOrderByCreatedAtAscMovementIdAsc(
+                stockId, from, to, Limit.of(MAX_MOVEMENTS)).stream()
+            .map(StockMovementDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+
+    private LocalDateTime requireSnapshot(LocalDateTime at) {
+        LocalDateTime snapshotAt = latestSnapshotAt(at);
+        if (snapshotAt == null) {
+            throw new IllegalArgumentException("No stock history is recorded before " + at);
+        }
+        return snapshotAt;
+    }
+
+    private LocalDateTime latestSnapshotAt(LocalDateTime at) {
+        return namedParameterJdbcTemplate.queryForObject(LATEST_SNAPSHOT_SQL, new MapSqlParameterSource("at", at), LocalDateTime.class);
+    }
+
+    private void insert(List<MapSqlParameterSource> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        rows.forEach(row -> row.addValue("createdAt", now));
+        namedParameterJdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, rows.toArray(new MapSqlParameterSource[0]));
+    }
+}
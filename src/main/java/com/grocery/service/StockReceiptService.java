@@ -0,0 +1,199 @@
+package com.grocery.service;
+
+import com.grocery.dto.StockReceiptRequest;
+import com.grocery.dto.StockReceiptResult;
+import com.grocery.event.StockChangedEvent;
+import com.grocery.model.StockMovement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.concurrent.TimeUnit;
+
+// Receives a whole supplier delivery in one transaction: lookups are done per chunk of lines and the
+// quantities are added in SQL with a single JDBC batch of upserts
+@Service
+@Transactional
+public class StockReceiptService {
+    public static final int MAX_LINES = 10000;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_REORDER_LEVEL = 10;
+
+    private static final String RECEIVE_SQL =
+        "INSERT INTO stock_management (product_id, warehouse_location, quantity_available, reorder_level, last_restocked, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE quantity_available = quantity_available + VALUES(quantity_available), " +
+        "last_restocked = VALUES(last_restocked), updated_at = VALUES(updated_at)";
+
+    private static final String MARK_RESTOCKED_SQL =
+        "UPDATE stock_management SET last_restocked = :now, updated_at = :now WHERE stock_id IN (:stockIds)";
+
+    private static final String FIND_PRODUCT_IDS_BY_SKU_SQL = "SELECT product_id, sku FROM products WHERE sku IN (:skus)";
+    private static final String FIND_PRODUCT_IDS_SQL = "SELECT product_id FROM products WHERE product_id IN (:productIds)";
+    private static final String FIND_STOCK_ROWS_SQL =
+        "SELECT stock_id, product_id, warehouse_location, quantity_available FROM stock_management WHERE product_id IN (:productIds)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public StockReceiptResult receive(StockReceiptRequest request) {
+        long started = System.nanoTime();
+        List<StockReceiptRequest.Line> lines = request.getLines();
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("A receipt needs at least one line");
+        }
+        if (lines.size() > MAX_LINES) {
+            throw new IllegalArgumentException("A receipt can have at most " + MAX_LINES + " lines");
+        }
+
+        Set<String> skus = new LinkedHashSet<>();
+        Set<Integer> productIds = new LinkedHashSet<>();
+        for (StockReceiptRequest.Line line : lines) {
+            if (line == null) {
+                continue;
+            }
+            if (line.getProductId() != null) {
+                productIds.add(line.getProductId());
+            } else if (line.getSku() != null && !line.getSku().isBlank()) {
+                skus.add(line.getSku().trim());
+            }
+        }
+        Map<String, Integer> productIdsBySku = new HashMap<>();
+        forEachChunk(skus, chunk -> namedParameterJdbcTemplate.query(FIND_PRODUCT_IDS_BY_SKU_SQL,
+            new MapSqlParameterSource("skus", chunk), (rs, rowNum) -> productIdsBySku.put(rs.getString("sku"), rs.getInt("product_id"))));
+        Set<Integer> knownProductIds = new LinkedHashSet<>(productIdsBySku.values());
+        forEachChunk(productIds, chunk -> knownProductIds.addAll(namedParameterJdbcTemplate.queryForList(FIND_PRODUCT_IDS_SQL,
+            new MapSqlParameterSource("productIds", chunk), Integer.class)));
+
+        List<StockReceiptResult.LineResult> results = new ArrayList<>(lines.size());
+        List<StockReceiptResult.LineResult> accepted = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            StockReceiptRequest.Line line = lines.get(i) != null ? lines.get(i) : new StockReceiptRequest.Line();
+            Integer productId = line.getProductId() != null ? line.getProductId()
+                : line.getSku() != null ? productIdsBySku.get(line.getSku().trim()) : null;
+            String warehouse = line.getWarehouseLocation() != null ? line.getWarehouseLocation().trim() : null;
+            String error = validate(line, productId, warehouse, knownProductIds);
+            StockReceiptResult.LineResult result = new StockReceiptResult.LineResult(i + 1, productId, warehouse,
+                line.getQuantity(), error == null ? "APPLIED" : "REJECTED", null, null, error);
+            results.add(result);
+            if (error == null) {
+                accepted.add(result);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            apply(accepted);
+        }
+        return new StockReceiptResult(request.getReference(), accepted.size(), results.size() - accepted.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), results);
+    }
+
+    private void apply(List<StockReceiptResult.LineResult> accepted) {
+        // Sorted by product and warehouse so concurrent receipts lock the rows in the same order
+        List<StockReceiptResult.LineResult> ordered = new ArrayList<>(accepted);
+        ordered.sort(Comparator.comparing(StockReceiptResult.LineResult::getProductId)
+            .thenComparing(r -> stockKey(r.getProductId(), r.getWarehouseLocation())));
+        Set<Integer> productIds = new LinkedHashSet<>();
+        ordered.forEach(r -> productIds.add(r.getProductId()));
+
+        // Rows the ledger already tracks must be changed through it, or its cells would go stale
+        Map<String, int[]> existing = stockLedger.isEnabled() ? loadStockRows(productIds) : Map.of();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        Map<Integer, Integer> ledgerDeltas = new LinkedHashMap<>();
+        for (StockReceiptResult.LineResult line : ordered) {
+            int[] row = existing.get(stockKey(line.getProductId(), line.getWarehouseLocation()));
+            if (row != null) {
+                ledgerDeltas.merge(row[0], line.getQuantity(), Integer::sum);
+            } else {
+                batch.add(new Object[] {
+                    line.getProductId(), line.getWarehouseLocation(), line.getQuantity(), DEFAULT_REORDER_LEVEL, now, now, now
+                });
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECEIVE_SQL, batch);
+        }
+        if (!ledgerDeltas.isEmpty()) {
+            // The ledger only journals the received quantities once the receipt commits and takes them
+            // out again if it rolls back. The restock time is written here and rolls back with everything else.
+            namedParameterJdbcTemplate.update(MARK_RESTOCKED_SQL,
+                new MapSqlParameterSource("now", now).addValue("stockIds", ledgerDeltas.keySet()));
+            ledgerDeltas.forEach((stockId, quantity) -> stockLedger.adjust(stockId, quantity, false));
+        }
+
+        Map<String, int[]> after = loadStockRows(productIds);
+        Set<Integer> stockIds = new LinkedHashSet<>();
+        for (StockReceiptResult.LineResult line : ordered) {
+            int[] row = after.get(stockKey(line.getProductId(), line.getWarehouseLocation()));
+            line.setStockId(row[0]);
+            line.setQuantityAvailable(stockLedger.quantityOr(row[0], row[1]));
+            stockIds.add(row[0]);
+            stockMovementService.record(row[0], line.getProductId(), line.getWarehouseLocation(), line.getQuantity(), StockMovement.Reason.RECEIPT);
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(stockIds));
+    }
+
+    private String validate(StockReceiptRequest.Line line, Integer productId, String warehouse, Set<Integer> knownProductIds) {
+        if (line.getProductId() == null && (line.getSku() == null || line.getSku().isBlank())) {
+            return "Product ID or SKU is required";
+        }
+        if (productId == null || !knownProductIds.contains(productId)) {
+            return line.getProductId() != null ? "Product not found with ID: " + line.getProductId() : "Unknown SKU: " + line.getSku();
+        }
+        if (warehouse == null || warehouse.isEmpty()) {
+            return "Warehouse location is required";
+        }
+        if (line.getQuantity() == null || line.getQuantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        return null;
+    }
+
+    // Keyed case-insensitively, like the unique key on (product_id, warehouse_location)
+    private Map<String, int[]> loadStockRows(Collection<Integer> productIds) {
+        Map<String, int[]> rows = new HashMap<>();
+        forEachChunk(productIds, chunk -> namedParameterJdbcTemplate.query(FIND_STOCK_ROWS_SQL,
+            new MapSqlParameterSource("productIds", chunk), (rs, rowNum) -> rows.put(
+                stockKey(rs.getInt("product_id"), rs.getString("warehouse_location")),
+                new int[] { rs.getInt("stock_id"), rs.getInt("quantity_available") })));
+        return rows;
+    }
+
+    private static String stockKey(Integer productId, String warehouseLocation) {
+        return productId + "|" + (warehouseLocation != null ? warehouseLocation.trim().toLowerCase() : "");
+    }
+
+    private static <T> void forEachChunk(Collection<T> values, Consumer<List<T>> action) {
+        List<T> all = new ArrayList<>(values);
+        for (int start = 0; start < all.size(); start += LOOKUP_CHUNK_SIZE) {
+            action.accept(all.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, all.size())));
+        }
+    }
+}
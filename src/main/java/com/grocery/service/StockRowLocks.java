@@ -0,0 +1,40 @@
+package com.grocery.service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped locks keyed by stock id. A listener holds the locks of its rows from reading them to applying
+// them, so a slower listener can't apply an older read over a newer one. Stripes are taken in index
+// order, so listeners with overlapping rows can't deadlock.
+class StockRowLocks {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    StockRowLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    <T> T withLocks(Collection<Integer> stockIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        stockIds.forEach(stockId -> indexes.add(Math.floorMod(stockId, STRIPES)));
+        Deque<ReentrantLock> held = new ArrayDeque<>();
+        try {
+            for (Integer index : indexes) {
+                stripes[index].lock();
+                held.push(stripes[index]);
+            }
+            return action.get();
+        } finally {
+            while (!held.isEmpty()) {
+                held.pop().unlock();
+            }
+        }
+    }
+}
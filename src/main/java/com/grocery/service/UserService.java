@@ -1,5 +1,7 @@
 package com.grocery.service;
 
+import com.grocery.dto.BatchResult;
+import com.grocery.dto.CursorPage;
 import com.grocery.dto.LoginRequest;
 import com.grocery.dto.LoginResponse;
 import com.grocery.dto.UserDTO;
@@ -10,14 +12,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserService {
+    private static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+        "userId", Integer.class,
+        "username", String.class,
+        "email", String.class,
+        "createdAt", LocalDateTime.class
+    );
+
     @Autowired
     private UserRepository userRepository;
     
@@ -114,6 +126,14 @@ public class UserService {
         return user.map(UserDTO::fromEntity).orElse(null);
     }
 
+    @Transactional(readOnly = true)
+    public BatchResult<UserDTO> getUsersByIds(List<Integer> userIds) {
+        Set<Integer> requestedIds = BatchResult.requestedIds(userIds);
+        Map<Integer, UserDTO> found = userRepository.findAllById(requestedIds).stream()
+            .collect(Collectors.toMap(User::getUserId, UserDTO::fromEntity));
+        return BatchResult.of(requestedIds, found);
+    }
+
     public UserDTO getUserByUsername(String username) {
         Optional<User> user = userRepository.findByUsername(username);
         return user.map(UserDTO::fromEntity).orElse(null);
@@ -125,6 +145,11 @@ public class UserService {
             .collect(Collectors.toList());
     }
 
+    public CursorPage<UserDTO> getUsersPage(Integer limit, String after, String sort) {
+        KeysetQuery query = KeysetQuery.parse(limit, after, sort, "userId", SORTABLE_FIELDS);
+        return query.toPage(userRepository.findBy(query.getPosition(), query.getSort(), query.getLimit()), UserDTO::fromEntity);
+    }
+
     public UserDTO updateUser(Integer userId, User userDetails) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isPresent()) {
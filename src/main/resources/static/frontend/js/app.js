@@ -137,7 +137,7 @@ function updateCartDisplay() {
   if (cart.length === 0) {
     cartContainer.innerHTML = '<div class="empty-message">Your cart is empty</div>'
     document.getElementById("subtotal").textContent = "$0.00"
-    document.getElementById("tax").textContent = "$0.00"
+    document.getElementById("discount").textContent = "$0.00"
     document.getElementById("total").textContent = "$0.00"
     return
   }
@@ -164,12 +164,35 @@ function updateCartDisplay() {
     cartContainer.appendChild(cartItem)
   })
 
-  const tax = subtotal * 0.1
-  const total = subtotal + tax
-
   document.getElementById("subtotal").textContent = `$${subtotal.toFixed(2)}`
-  document.getElementById("tax").textContent = `$${tax.toFixed(2)}`
-  document.getElementById("total").textContent = `$${total.toFixed(2)}`
+  updateCartTotals()
+}
+
+// The server prices the cart (promotions included) and charges exactly that total, so the
+// summary shows its quote rather than adding things up here
+async function fetchQuote() {
+  const response = await fetch(`${API_BASE_URL}/pricing/quote`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ items: cart.map((item) => ({ productId: item.productId, quantity: item.quantity })) }),
+  })
+  if (!response.ok) {
+    throw new Error("Could not price the cart")
+  }
+  return response.json()
+}
+
+async function updateCartTotals() {
+  try {
+    const quote = await fetchQuote()
+    document.getElementById("subtotal").textContent = `$${quote.subtotal.toFixed(2)}`
+    document.getElementById("discount").textContent = `-$${quote.discountTotal.toFixed(2)}`
+    document.getElementById("total").textContent = `$${quote.total.toFixed(2)}`
+  } catch (error) {
+    console.error("Error pricing cart:", error)
+    document.getElementById("discount").textContent = "-"
+    document.getElementById("total").textContent = "-"
+  }
 }
 
 function updateCartQuantity(index, newQuantity) {
@@ -202,7 +225,7 @@ async function checkout() {
 
   console.log("About to show checkout modal")
   // Show checkout modal instead of directly creating order
-  showCheckoutModal()
+  await showCheckoutModal()
 }
 
 function testCheckout() {
@@ -237,13 +260,17 @@ function testCheckout() {
   checkout()
 }
 
-function showCheckoutModal() {
+async function showCheckoutModal() {
   console.log("showCheckoutModal called")
-  const subtotal = cart.reduce((sum, item) => sum + item.price * item.quantity, 0)
-  const tax = subtotal * 0.1
-  const total = subtotal + tax
+  let quote
+  try {
+    quote = await fetchQuote()
+  } catch (error) {
+    alert("Could not price your cart, please try again")
+    return
+  }
 
-  console.log("Subtotal:", subtotal, "Tax:", tax, "Total:", total)
+  console.log("Quote:", quote)
   const formContainer = document.getElementById("formContainer")
   console.log("Form container:", formContainer)
   formContainer.innerHTML = `
@@ -252,25 +279,25 @@ function showCheckoutModal() {
       <div class="checkout-summary">
         <h3>Order Summary</h3>
         <div class="cart-items">
-          ${cart.map(item => `
+          ${quote.lines.map(line => `
             <div class="cart-item">
-              <span>${item.name} x ${item.quantity}</span>
-              <span>$${(item.price * item.quantity).toFixed(2)}</span>
+              <span>${line.productName} x ${line.quantity}${line.promotionName ? ` (${line.promotionName})` : ''}</span>
+              <span>$${line.total.toFixed(2)}</span>
             </div>
           `).join('')}
         </div>
         <div class="totals">
           <div class="total-line">
             <span>Subtotal:</span>
-            <span>$${subtotal.toFixed(2)}</span>
+            <span>$${quote.subtotal.toFixed(2)}</span>
           </div>
           <div class="total-line">
-            <span>Tax (10%):</span>
-            <span>$${tax.toFixed(2)}</span>
+            <span>Discount:</span>
+            <span>-$${quote.discountTotal.toFixed(2)}</span>
           </div>
           <div class="total-line total">
             <span>Total:</span>
-            <span>$${total.toFixed(2)}</span>
+            <span>$${quote.total.toFixed(2)}</span>
           </div>
         </div>
       </div>
@@ -417,14 +444,9 @@ async function processCheckout() {
       return
     }
 
-    const subtotal = cart.reduce((sum, item) => sum + item.price * item.quantity, 0)
-    const tax = subtotal * 0.1
-    const total = subtotal + tax
-
+    // The server sets the status and prices the order; only the cart and delivery details are sent
     const order = {
       userId: currentUser.userId,
-      totalAmount: total,
-      status: "PENDING",
       deliveryAddress: `${deliveryAddress}, ${deliveryCity}, ${deliveryPostalCode}`,
       deliveryName: deliveryName,
       deliveryPhone: deliveryPhone,
@@ -433,8 +455,6 @@ async function processCheckout() {
       orderItems: cart.map((item) => ({
         productId: item.productId,
         quantity: item.quantity,
-        unitPrice: item.price,
-        subtotal: item.price * item.quantity,
       })),
     }
 
@@ -445,7 +465,8 @@ async function processCheckout() {
     })
 
     if (response.ok) {
-      alert("Order placed successfully! Thank you for your purchase.")
+      const created = await response.json()
+      alert(`Order placed successfully! You were charged $${created.totalAmount.toFixed(2)}. Thank you for your purchase.`)
       cart = []
       updateCartDisplay()
       closeModal()
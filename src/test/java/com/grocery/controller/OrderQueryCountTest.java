@@ -0,0 +1,88 @@
+package com.grocery.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.service.KeysetQuery;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The order read paths must load orders, items and products in a fixed number of statements,
+// however many orders there are
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderQueryCountTest {
+    private static final int USER_ID = 4;
+    private static final int ORDERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readPathsRunTheSameStatementsForNAndFourNOrders() throws Exception {
+        int lastOrderId = createOrders(ORDERS);
+        Map<String, Long> small = countStatements(lastOrderId);
+
+        lastOrderId = createOrders(3 * ORDERS);
+        Map<String, Long> large = countStatements(lastOrderId);
+
+        assertEquals(small, large);
+    }
+
+    private Map<String, Long> countStatements(int orderId) throws Exception {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("/orders", preparedStatements("/orders"));
+        counts.put("/orders/user/{id}", preparedStatements("/orders/user/" + USER_ID));
+        counts.put("/orders/{id}", preparedStatements("/orders/" + orderId));
+        // The page is large enough to hold every order, so it grows with them
+        counts.put("/orders?limit", preparedStatements("/orders?limit=" + KeysetQuery.MAX_LIMIT));
+        return counts;
+    }
+
+    private long preparedStatements(String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Each order has items on several products, so a lazy load per item or product would show up
+    private int createOrders(int count) throws Exception {
+        int lastOrderId = 0;
+        for (int i = 0; i < count; i++) {
+            String body = "{\"userId\":" + USER_ID + ",\"deliveryAddress\":\"1 Test Street\",\"orderItems\":["
+                + "{\"productId\":" + (1 + i % 4) + ",\"quantity\":1},"
+                + "{\"productId\":" + (1 + (i + 1) % 4) + ",\"quantity\":1},"
+                + "{\"productId\":" + (1 + (i + 2) % 4) + ",\"quantity\":1}]}";
+            MvcResult pending = mockMvc.perform(post("/orders").contentType("application/json").content(body)).andReturn();
+            String created = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode order = objectMapper.readTree(created);
+            lastOrderId = order.get("orderId").asInt();
+        }
+        return lastOrderId;
+    }
+}